@@ -0,0 +1,117 @@
+package com.cancun.hotel.benchmark;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.repository.BookingDayStore;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.repository.RoomInventory;
+import com.cancun.hotel.repository.SingleNodeBookingDayStore;
+import com.cancun.hotel.service.BookingCounts;
+import com.cancun.hotel.service.BookingService;
+import com.cancun.hotel.service.BookingServiceImpl;
+import com.cancun.hotel.service.BookingValidator;
+import com.cancun.hotel.service.CheckInDateStep;
+import com.cancun.hotel.service.CheckOutDateStep;
+import com.cancun.hotel.service.RoomAvailabilityStep;
+import com.cancun.hotel.service.StayPeriodStep;
+import com.cancun.hotel.utils.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookingServiceBenchmark {
+    private static final long ROOM_COUNT = 50;
+    private static final long MAX_PERIOD_IN_DAYS = 3;
+    private static final int CANDIDATE_COUNT = 1024;
+    private static final DateUtils DATE_UTILS = () -> LocalDate.of(2021, 12, 25);
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int storedBookings;
+
+    @Param({"30", "90", "365"})
+    public long latestDateInDays;
+
+    private BookingOccupancyIndex occupancyIndex;
+    private BookingService service;
+    private Booking[] candidates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        InMemoryBookingRepository repository = new InMemoryBookingRepository();
+        LocalDate lastDay = DATE_UTILS.countAndReturnDate(DATE_UTILS.tomorrow(), latestDateInDays);
+        LocalDate[] nextCheckOut = new LocalDate[(int) ROOM_COUNT];
+        for (int i = 0; i < storedBookings; i++) {
+            int room = (int) (i % ROOM_COUNT);
+            LocalDate checkOut = nextCheckOut[room] == null ? lastDay : nextCheckOut[room];
+            LocalDate checkIn = checkOut.minusDays(random.nextInt((int) MAX_PERIOD_IN_DAYS));
+            repository.save(Booking.of(UUID.randomUUID().toString(), room + 1L, checkIn, checkOut));
+            nextCheckOut[room] = checkIn.minusDays(1 + random.nextInt(2));
+        }
+
+        List<Long> roomIds = LongStream.rangeClosed(1, ROOM_COUNT).boxed().collect(Collectors.toUnmodifiableList());
+        RoomInventory roomInventory = new RoomInventory(null, ROOM_COUNT) {
+            @Override
+            public List<Long> roomIds() {
+                return roomIds;
+            }
+        };
+        occupancyIndex = new BookingOccupancyIndex(latestDateInDays, false, 0, repository, roomInventory, DATE_UTILS);
+        occupancyIndex.load();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingValidator validator = new BookingValidator(latestDateInDays, List.of(new CheckInDateStep(), new CheckOutDateStep(), new StayPeriodStep(MAX_PERIOD_IN_DAYS), new RoomAvailabilityStep(occupancyIndex)), DATE_UTILS, meterRegistry);
+        BookingDayStore dayStore = new SingleNodeBookingDayStore();
+        service = new BookingServiceImpl(repository, dayStore, occupancyIndex, validator, new BookingCounts(repository, meterRegistry), meterRegistry);
+
+        candidates = new Booking[CANDIDATE_COUNT];
+        for (int i = 0; i < CANDIDATE_COUNT; i++) {
+            LocalDate checkIn = DATE_UTILS.tomorrow().plusDays(random.nextInt((int) latestDateInDays - 1));
+            candidates[i] = Booking.of(UUID.randomUUID().toString(), checkIn, checkIn.plusDays(1 + random.nextInt((int) MAX_PERIOD_IN_DAYS - 1)));
+        }
+    }
+
+    @Benchmark
+    public List<String> validateBooking() {
+        return service.validateBooking(candidates[next++ & (CANDIDATE_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public Set<LocalDate> findAllBookedDates() {
+        return service.findAllBookedDates();
+    }
+
+    @Benchmark
+    public Set<LocalDate> findAllAvailableDates() {
+        return service.findAllAvailableDates();
+    }
+
+    @Benchmark
+    public long availabilityVersion() {
+        return service.availabilityVersion();
+    }
+
+    @Benchmark
+    public BookingOccupancyIndex loadOccupancyIndex() {
+        occupancyIndex.load();
+        return occupancyIndex;
+    }
+}
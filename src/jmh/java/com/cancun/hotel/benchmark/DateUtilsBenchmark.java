@@ -0,0 +1,51 @@
+package com.cancun.hotel.benchmark;
+
+import com.cancun.hotel.utils.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DateUtilsBenchmark {
+    private static final DateUtils DATE_UTILS = () -> LocalDate.of(2021, 12, 25);
+
+    @Param({"3", "30", "365"})
+    public long latestDateInDays;
+
+    private LocalDate firstDay;
+    private LocalDate lastDay;
+
+    @Setup
+    public void setUp() {
+        firstDay = DATE_UTILS.tomorrow();
+        lastDay = DATE_UTILS.countAndReturnDate(firstDay, latestDateInDays);
+    }
+
+    @Benchmark
+    public void streamOf(final Blackhole blackhole) {
+        DATE_UTILS.streamOf(firstDay, lastDay).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void epochDayLoop(final Blackhole blackhole) {
+        for (long day = firstDay.toEpochDay(), last = lastDay.toEpochDay(); day <= last; day++) {
+            blackhole.consume(day);
+        }
+    }
+
+    @Benchmark
+    public long countDays() {
+        return DATE_UTILS.countDays(firstDay, lastDay);
+    }
+}
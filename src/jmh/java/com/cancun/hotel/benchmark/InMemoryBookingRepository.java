@@ -0,0 +1,137 @@
+package com.cancun.hotel.benchmark;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.repository.BookingRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class InMemoryBookingRepository implements BookingRepository {
+    private static final Comparator<Booking> CREATION_ORDER = Comparator.comparing(Booking::getCreated).thenComparing(Booking::getId);
+
+    private final Map<String, Booking> bookings = new LinkedHashMap<>();
+
+    @Override
+    public List<Booking> findAll() {
+        return new ArrayList<>(bookings.values());
+    }
+
+    @Override
+    public List<Booking> findFirstPage(final Pageable pageable) {
+        return page(booking -> true, pageable);
+    }
+
+    @Override
+    public List<Booking> findPageAfter(final Instant created, final String id, final Pageable pageable) {
+        return page(booking -> booking.getCreated().isAfter(created) || (booking.getCreated().equals(created) && booking.getId().compareTo(id) > 0), pageable);
+    }
+
+    @Override
+    public List<Booking> findAllOverlapping(final LocalDate from, final LocalDate to) {
+        return bookings.values()
+                .stream()
+                .filter(booking -> !booking.getCheckOut().isBefore(from) && !booking.getCheckIn().isAfter(to))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Booking> findSameOrOverlapping(final String id, final Long roomId, final Long defaultRoomId, final LocalDate from, final LocalDate to) {
+        return bookings.values()
+                .stream()
+                .filter(booking -> booking.getId().equals(id)
+                        || roomId.equals(booking.getRoomId() == null ? defaultRoomId : booking.getRoomId())
+                        && !booking.getCheckOut().isBefore(from) && !booking.getCheckIn().isAfter(to))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEachBooking(final Consumer<Booking> action) {
+        findAll().forEach(action);
+    }
+
+    @Override
+    public void persistAll(final Collection<Booking> bookings) {
+        bookings.forEach(this::save);
+    }
+
+    @Override
+    public <S extends Booking> S save(final S booking) {
+        bookings.put(booking.getId(), booking);
+        return booking;
+    }
+
+    @Override
+    public <S extends Booking> Iterable<S> saveAll(final Iterable<S> bookings) {
+        bookings.forEach(this::save);
+        return bookings;
+    }
+
+    @Override
+    public Optional<Booking> findById(final String id) {
+        return Optional.ofNullable(bookings.get(id));
+    }
+
+    @Override
+    public boolean existsById(final String id) {
+        return bookings.containsKey(id);
+    }
+
+    @Override
+    public Iterable<Booking> findAllById(final Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(bookings::get)
+                .filter(booking -> booking != null)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long count() {
+        return bookings.size();
+    }
+
+    @Override
+    public void deleteById(final String id) {
+        bookings.remove(id);
+    }
+
+    @Override
+    public void delete(final Booking booking) {
+        deleteById(booking.getId());
+    }
+
+    @Override
+    public void deleteAllById(final Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(final Iterable<? extends Booking> bookings) {
+        bookings.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        bookings.clear();
+    }
+
+    private List<Booking> page(final Predicate<Booking> filter, final Pageable pageable) {
+        return bookings.values()
+                .stream()
+                .filter(filter)
+                .sorted(CREATION_ORDER)
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,145 @@
+package com.cancun.hotel.benchmark;
+
+import com.cancun.hotel.VirtualThreadConfig;
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.repository.BookingDayStore;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.repository.RoomInventory;
+import com.cancun.hotel.repository.SingleNodeBookingDayStore;
+import com.cancun.hotel.service.BookingCounts;
+import com.cancun.hotel.service.BookingService;
+import com.cancun.hotel.service.BookingServiceImpl;
+import com.cancun.hotel.service.BookingValidator;
+import com.cancun.hotel.service.CheckInDateStep;
+import com.cancun.hotel.service.CheckOutDateStep;
+import com.cancun.hotel.service.RoomAvailabilityStep;
+import com.cancun.hotel.service.StayPeriodStep;
+import com.cancun.hotel.utils.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VirtualThreadScalingBenchmark {
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long LATEST_DATE_IN_DAYS = 30;
+    private static final long MAX_PERIOD_IN_DAYS = 3;
+    private static final int CANDIDATE_COUNT = 1024;
+    private static final DateUtils DATE_UTILS = () -> LocalDate.of(2021, 12, 25);
+
+    @Param({"64", "256", "1024", "4096"})
+    public int clients;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"false", "true"})
+    public boolean pinned;
+
+    @Param({"1000"})
+    public long repositoryLatencyMicros;
+
+    private ExecutorService executor;
+    private BookingService service;
+    private Booking[] candidates;
+    private Object[] connections;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+        public long requests;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(threads) ?
+                VirtualThreadConfig.newVirtualThreadPerTaskExecutor() :
+                Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+
+        RoomInventory roomInventory = new RoomInventory(null, 1) {
+            @Override
+            public List<Long> roomIds() {
+                return List.of(1L);
+            }
+        };
+        InMemoryBookingRepository repository = new InMemoryBookingRepository();
+        BookingOccupancyIndex occupancyIndex = new BookingOccupancyIndex(LATEST_DATE_IN_DAYS, false, 0, repository, roomInventory, DATE_UTILS);
+        occupancyIndex.load();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingValidator validator = new BookingValidator(LATEST_DATE_IN_DAYS, List.of(new CheckInDateStep(), new CheckOutDateStep(), new StayPeriodStep(MAX_PERIOD_IN_DAYS), new RoomAvailabilityStep(occupancyIndex)), DATE_UTILS, meterRegistry);
+        BookingDayStore dayStore = new SingleNodeBookingDayStore();
+        service = new BookingServiceImpl(repository, dayStore, occupancyIndex, validator, new BookingCounts(repository, meterRegistry), meterRegistry);
+
+        Random random = new Random(42);
+        candidates = new Booking[CANDIDATE_COUNT];
+        for (int i = 0; i < CANDIDATE_COUNT; i++) {
+            LocalDate checkIn = DATE_UTILS.tomorrow().plusDays(random.nextInt((int) LATEST_DATE_IN_DAYS - 1));
+            candidates[i] = Booking.of(UUID.randomUUID().toString(), checkIn, checkIn.plusDays(random.nextInt((int) MAX_PERIOD_IN_DAYS)));
+        }
+        connections = new Object[clients];
+        for (int i = 0; i < clients; i++) {
+            connections[i] = new Object();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void serveClients(final Requests counter) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            executor.execute(() -> {
+                try {
+                    handle(client);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        counter.requests += clients;
+    }
+
+    private void handle(final int client) {
+        service.validateBooking(candidates[client & (CANDIDATE_COUNT - 1)]);
+        if (pinned) {
+            synchronized (connections[client]) {
+                awaitRepository();
+            }
+        } else {
+            awaitRepository();
+        }
+    }
+
+    private void awaitRepository() {
+        try {
+            TimeUnit.MICROSECONDS.sleep(repositoryLatencyMicros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
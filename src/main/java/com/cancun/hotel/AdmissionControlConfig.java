@@ -0,0 +1,60 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.controller.AdaptiveConcurrencyLimit;
+import com.cancun.hotel.controller.AdmissionControlFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "booking.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimit readConcurrencyLimit(
+            @Value("${booking.admission.read.initial-limit}") final int initialLimit,
+            @Value("${booking.admission.read.min-limit}") final int minLimit,
+            @Value("${booking.admission.read.max-limit}") final int maxLimit,
+            @Value("${booking.admission.read.target-latency-ms}") final long targetLatencyMillis,
+            @Value("${booking.admission.backoff-ratio}") final double backoffRatio,
+            final MeterRegistry meterRegistry
+    ) {
+        return new AdaptiveConcurrencyLimit("read", initialLimit, minLimit, maxLimit, Duration.ofMillis(targetLatencyMillis), backoffRatio, meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit writeConcurrencyLimit(
+            @Value("${booking.admission.write.initial-limit}") final int initialLimit,
+            @Value("${booking.admission.write.min-limit}") final int minLimit,
+            @Value("${booking.admission.write.max-limit}") final int maxLimit,
+            @Value("${booking.admission.write.target-latency-ms}") final long targetLatencyMillis,
+            @Value("${booking.admission.backoff-ratio}") final double backoffRatio,
+            final MeterRegistry meterRegistry
+    ) {
+        return new AdaptiveConcurrencyLimit("write", initialLimit, minLimit, maxLimit, Duration.ofMillis(targetLatencyMillis), backoffRatio, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            final AdaptiveConcurrencyLimit readConcurrencyLimit,
+            final AdaptiveConcurrencyLimit writeConcurrencyLimit,
+            @Value("${booking.admission.retry-after-seconds}") final long retryAfterSeconds,
+            final ObjectMapper mapper
+    ) throws IOException {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(readConcurrencyLimit, writeConcurrencyLimit, retryAfterSeconds, mapper));
+        registration.addUrlPatterns("/api/booking", "/api/booking/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
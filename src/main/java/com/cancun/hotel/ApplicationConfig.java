@@ -1,20 +1,17 @@
 package com.cancun.hotel;
 
+import com.cancun.hotel.repository.BookingJournal;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.repository.RoomInventory;
+import com.cancun.hotel.service.AvailabilityFeed;
 import com.cancun.hotel.utils.DateUtils;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import springfox.documentation.builders.RequestHandlerSelectors;
-import springfox.documentation.spi.DocumentationType;
-import springfox.documentation.spring.web.plugins.Docket;
-import springfox.documentation.swagger.web.OperationsSorter;
-import springfox.documentation.swagger.web.UiConfiguration;
-import springfox.documentation.swagger.web.UiConfigurationBuilder;
-import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 import java.time.LocalDate;
 
 @Configuration
-@EnableSwagger2
 public class ApplicationConfig {
 
     @Bean
@@ -23,18 +20,13 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public Docket docket() {
-        return new Docket(DocumentationType.SWAGGER_2)
-                .select()
-                .apis(RequestHandlerSelectors.basePackage("com.cancun.hotel"))
-                .build();
-    }
-
-    @Bean
-    public UiConfiguration uiConfig() {
-        return UiConfigurationBuilder
-                .builder()
-                .operationsSorter(OperationsSorter.METHOD)
-                .build();
+    public static LazyInitializationExcludeFilter eagerStartupState() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                RoomInventory.class,
+                BookingOccupancyIndex.class,
+                BookingJournal.class,
+                AvailabilityFeed.class,
+                VirtualThreadPinningMonitor.class,
+                StartupReport.class);
     }
 }
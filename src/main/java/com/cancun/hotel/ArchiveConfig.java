@@ -0,0 +1,13 @@
+package com.cancun.hotel;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@Profile("!reactive & !journal")
+@ConditionalOnProperty(name = "booking.archive.enabled", havingValue = "true")
+public class ArchiveConfig {
+}
@@ -0,0 +1,88 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.controller.ReadYourWritesFilter;
+import com.cancun.hotel.repository.ReplicaCacheModeJpaDialect;
+import com.cancun.hotel.repository.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@Configuration
+@Profile("!reactive & !journal")
+@ConditionalOnProperty(name = "booking.datasource.replica.url")
+public class ReadReplicaConfig {
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public DataSource replicaDataSource(
+            @Value("${booking.datasource.replica.url}") final String url,
+            @Value("${booking.datasource.replica.username:${spring.datasource.username:sa}}") final String username,
+            @Value("${booking.datasource.replica.password:${spring.datasource.password:}}") final String password
+    ) {
+        log.info("Read-only transactions are routed to the replica at {}", url);
+        return DataSourceBuilder.create()
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") final DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") final DataSource replicaDataSource,
+            final MeterRegistry meterRegistry
+    ) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaCacheModeJpaDialect() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean) {
+                    ((LocalContainerEntityManagerFactoryBean) bean).setJpaDialect(new ReplicaCacheModeJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public TaskDecorator primaryPinPropagation() {
+        return ReplicaRoutingDataSource::propagatePin;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${booking.datasource.read-your-writes-ms}") final long windowMillis) {
+        return new ReadYourWritesFilter(windowMillis, Clock.systemUTC());
+    }
+}
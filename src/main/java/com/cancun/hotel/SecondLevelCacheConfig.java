@@ -0,0 +1,23 @@
+package com.cancun.hotel;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer contextCacheManager(
+            @Value("${spring.jpa.properties.hibernate.javax.cache.provider}") final String provider
+    ) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, Caching.getCachingProvider(provider)
+                .getCacheManager(URI.create("booking-cache:" + UUID.randomUUID()), SecondLevelCacheConfig.class.getClassLoader()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.cancun.hotel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class StartupReport implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+    private static final String APPLICATION_PHASE = "spring.boot.application.";
+    private static final String CONTEXT_REFRESH = "spring.context.refresh";
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+    private static final int SLOWEST_BEANS = 10;
+
+    private final boolean exitAfterReady;
+    private volatile String report = "";
+
+    @Autowired
+    public StartupReport(@Value("${booking.startup.exit-after-ready:false}") final boolean exitAfterReady) {
+        this.exitAfterReady = exitAfterReady;
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        if (context.getApplicationStartup() instanceof BufferingApplicationStartup) {
+            report = report(((BufferingApplicationStartup) context.getApplicationStartup()).getBufferedTimeline());
+            log.info("Ready {} ms after JVM start{}", ManagementFactory.getRuntimeMXBean().getUptime(), report);
+        }
+        if (exitAfterReady) {
+            log.info("Exiting after startup as requested by booking.startup.exit-after-ready");
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    public String getReport() {
+        return report;
+    }
+
+    static String report(final StartupTimeline timeline) {
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        Map<String, Duration> beans = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            String name = event.getStartupStep().getName();
+            if (name.startsWith(APPLICATION_PHASE)) {
+                phases.merge(name.substring(APPLICATION_PHASE.length()), event.getDuration(), Duration::plus);
+            } else if (CONTEXT_REFRESH.equals(name)) {
+                phases.merge("context-refresh", event.getDuration(), Duration::plus);
+            } else if (BEAN_INSTANTIATION.equals(name)) {
+                beans.merge(beanName(event), event.getDuration(), Duration::plus);
+            }
+        }
+        StringBuilder report = new StringBuilder(String.format("%nStartup phases:"));
+        phases.forEach((phase, duration) -> report.append(String.format("%n  %-22s %6d ms", phase, duration.toMillis())));
+        report.append(String.format("%nSlowest beans, including their dependencies:"));
+        beans.entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()))
+                .limit(SLOWEST_BEANS)
+                .collect(Collectors.toList())
+                .forEach(bean -> report.append(String.format("%n  %6d ms %s", bean.getValue().toMillis(), bean.getKey())));
+        return report.toString();
+    }
+
+    private static String beanName(final StartupTimeline.TimelineEvent event) {
+        for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,17 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.controller.StreamingTimeoutInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Profile("!reactive")
+public class StreamingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new StreamingTimeoutInterceptor());
+    }
+}
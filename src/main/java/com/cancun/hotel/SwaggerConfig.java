@@ -0,0 +1,47 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.domain.EncodedJson;
+import com.fasterxml.classmate.TypeResolver;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import springfox.documentation.builders.RequestHandlerSelectors;
+import springfox.documentation.schema.AlternateTypeRules;
+import springfox.documentation.schema.WildcardType;
+import springfox.documentation.spi.DocumentationType;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger.web.OperationsSorter;
+import springfox.documentation.swagger.web.UiConfiguration;
+import springfox.documentation.swagger.web.UiConfigurationBuilder;
+import springfox.documentation.swagger2.annotations.EnableSwagger2;
+
+@Configuration
+@EnableSwagger2
+@ConditionalOnProperty(name = "springfox.documentation.enabled", havingValue = "true", matchIfMissing = true)
+public class SwaggerConfig {
+
+    @Bean
+    public Docket docket() {
+        TypeResolver types = new TypeResolver();
+        return new Docket(DocumentationType.SWAGGER_2)
+                .alternateTypeRules(AlternateTypeRules.newRule(
+                        types.resolve(ResponseEntity.class, types.resolve(EncodedJson.class, WildcardType.class)),
+                        types.resolve(WildcardType.class),
+                        Ordered.HIGHEST_PRECEDENCE))
+                .ignoredParameterTypes(WebRequest.class)
+                .select()
+                .apis(RequestHandlerSelectors.basePackage("com.cancun.hotel"))
+                .build();
+    }
+
+    @Bean
+    public UiConfiguration uiConfig() {
+        return UiConfigurationBuilder
+                .builder()
+                .operationsSorter(OperationsSorter.METHOD)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.cancun.hotel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@ConditionalOnProperty(name = "booking.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!isSupported()) {
+            throw new IllegalStateException(String.format("Virtual threads require Java 21 or newer, running on %s", Runtime.version()));
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread executor is not available", e);
+        }
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        log.info("Request handling and repository calls will run on virtual threads");
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(final ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public AsyncTaskExecutor applicationTaskExecutor(final ExecutorService virtualThreadExecutor, final ObjectProvider<TaskDecorator> taskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(virtualThreadExecutor);
+        taskDecorator.ifAvailable(executor::setTaskDecorator);
+        return executor;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cancun.hotel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.EventSettings;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "booking.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String RECORDING_STREAM = "jdk.jfr.consumer.RecordingStream";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private AutoCloseable stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(
+            @Value("${booking.virtual-threads.pinned-threshold-ms}") final long thresholdMillis,
+            final MeterRegistry meterRegistry
+    ) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.pinned = Counter.builder("booking.virtual.threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            Class<?> type = Class.forName(RECORDING_STREAM);
+            stream = (AutoCloseable) type.getConstructor().newInstance();
+            ((EventSettings) type.getMethod("enable", String.class).invoke(stream, PINNED_EVENT)).withThreshold(threshold).withStackTrace();
+            Consumer<RecordedEvent> onPinned = this::onPinned;
+            type.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT, onPinned);
+            type.getMethod("startAsync").invoke(stream);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(String.format("JFR event streaming is not available on %s", Runtime.version()), e);
+        }
+        log.info("Reporting virtual threads pinned for longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        stream.close();
+    }
+
+    private void onPinned(final RecordedEvent event) {
+        pinned.increment();
+        log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), frames(event.getStackTrace()));
+    }
+
+    private static String frames(final RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown location";
+        }
+        return stackTrace.getFrames()
+                .stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::frame)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private static String frame(final RecordedFrame frame) {
+        return String.format("%s.%s:%s", frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber());
+    }
+}
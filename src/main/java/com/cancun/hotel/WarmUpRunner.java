@@ -0,0 +1,170 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.service.BookingService;
+import com.cancun.hotel.utils.DateUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "booking.warm-up.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner, ApplicationListener<AvailabilityChangeEvent<ReadinessState>> {
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private final BookingService service;
+    private final ObjectProvider<DataSource> dataSource;
+    private final DateUtils dateUtils;
+    private final ApplicationEventPublisher publisher;
+    private final int connections;
+    private final int callsPerRound;
+    private final long latencyThresholdNanos;
+    private final long maxDurationNanos;
+    private final boolean acceptUnsettled;
+    private volatile long durationNanos;
+    private volatile long steadyLatencyNanos;
+    private volatile boolean settled;
+
+    @Autowired
+    public WarmUpRunner(
+            final BookingService service,
+            final ObjectProvider<DataSource> dataSource,
+            final DateUtils dateUtils,
+            final ApplicationEventPublisher publisher,
+            @Value("${booking.warm-up.connections}") final int connections,
+            @Value("${booking.warm-up.calls-per-round}") final int callsPerRound,
+            @Value("${booking.warm-up.latency-threshold-ms}") final long latencyThresholdMillis,
+            @Value("${booking.warm-up.max-duration-ms}") final long maxDurationMillis,
+            @Value("${booking.warm-up.accept-unsettled}") final boolean acceptUnsettled,
+            final MeterRegistry meterRegistry
+    ) {
+        this.service = service;
+        this.dataSource = dataSource;
+        this.dateUtils = dateUtils;
+        this.publisher = publisher;
+        this.connections = connections;
+        this.callsPerRound = callsPerRound;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+        this.acceptUnsettled = acceptUnsettled;
+        TimeGauge.builder("booking.warm.up.duration", this, TimeUnit.NANOSECONDS, runner -> runner.durationNanos)
+                .description("Time spent warming up before accepting traffic")
+                .register(meterRegistry);
+        TimeGauge.builder("booking.warm.up.latency", this, TimeUnit.NANOSECONDS, runner -> runner.steadyLatencyNanos)
+                .description("99th percentile latency of the synthetic calls in the last warm-up round")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        long started = System.nanoTime();
+        int filled = fillConnectionPool();
+        int rounds = 0;
+        do {
+            steadyLatencyNanos = round();
+            rounds++;
+            settled = steadyLatencyNanos <= latencyThresholdNanos;
+        } while (!settled && System.nanoTime() - started < maxDurationNanos);
+        durationNanos = System.nanoTime() - started;
+
+        if (settled) {
+            log.info("Warm-up settled in {} ms after {} rounds and {} pooled connections, p99 latency {} us",
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), rounds, filled, TimeUnit.NANOSECONDS.toMicros(steadyLatencyNanos));
+        } else if (acceptUnsettled) {
+            log.warn("Warm-up stopped after {} ms and {} rounds with p99 latency {} us still above {} ms, accepting traffic anyway",
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), rounds, TimeUnit.NANOSECONDS.toMicros(steadyLatencyNanos),
+                    TimeUnit.NANOSECONDS.toMillis(latencyThresholdNanos));
+        } else {
+            log.error("Warm-up stopped after {} ms and {} rounds with p99 latency {} us still above {} ms, refusing traffic",
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), rounds, TimeUnit.NANOSECONDS.toMicros(steadyLatencyNanos),
+                    TimeUnit.NANOSECONDS.toMillis(latencyThresholdNanos));
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(final AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !settled && !acceptUnsettled) {
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public Duration getDuration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
+    public Duration getSteadyLatency() {
+        return Duration.ofNanos(steadyLatencyNanos);
+    }
+
+    private int fillConnectionPool() {
+        DataSource pool = dataSource.getIfAvailable();
+        if (pool == null) {
+            return 0;
+        }
+        List<Connection> borrowed = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = pool.getConnection();
+                borrowed.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            log.warn("Could only open {} of {} warm-up connections", borrowed.size(), connections, e);
+        } finally {
+            borrowed.forEach(WarmUpRunner::closeQuietly);
+        }
+        return borrowed.size();
+    }
+
+    private long round() {
+        LocalDate checkIn = dateUtils.tomorrow();
+        String missingId = String.format("warm-up-%s", UUID.randomUUID());
+        long[] latencies = new long[callsPerRound];
+        for (int i = 0; i < callsPerRound; i++) {
+            long started = System.nanoTime();
+            service.findAllAvailableDates();
+            service.findAllBookedDates();
+            service.findAvailableRooms(checkIn, checkIn.plusDays(1));
+            service.findBookingById(missingId);
+            latencies[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(latencies);
+        return latencies[Math.max(0, (int) Math.ceil(latencies.length * 0.99) - 1)];
+    }
+
+    private static void closeQuietly(final Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not return warm-up connection", e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cancun.hotel.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AdaptiveConcurrencyLimit {
+    private static final int MIN_WINDOW_SAMPLES = 8;
+    private static final long MAX_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int BASELINE_DRIFT = 20;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+    private final AtomicLong baselineNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicReference<Window> window = new AtomicReference<>(new Window(0));
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimit(
+            final String kind,
+            final int initialLimit,
+            final int minLimit,
+            final int maxLimit,
+            final Duration targetLatency,
+            final double backoffRatio,
+            final MeterRegistry meterRegistry
+    ) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Limits for %s must satisfy 1 <= min <= initial <= max", kind));
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException(String.format("Backoff ratio for %s must be between 0 and 1", kind));
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicLong(Double.doubleToLongBits(initialLimit));
+        Gauge.builder("booking.admission.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .description("Concurrent requests currently admitted")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        Gauge.builder("booking.admission.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests currently being handled")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("booking.admission.rejected")
+                .description("Requests shed because the concurrency limit was reached")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        int current = inFlight.get();
+        while (current < getLimit()) {
+            if (inFlight.compareAndSet(current, current + 1)) {
+                window.get().admitted(current + 1);
+                return true;
+            }
+            current = inFlight.get();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release(final long latencyNanos, final boolean failed) {
+        int stillInFlight = inFlight.decrementAndGet();
+        Window current = window.get();
+        current.record(latencyNanos, failed);
+        if (current.isComplete(getLimit()) && window.compareAndSet(current, new Window(stillInFlight))) {
+            adjust(current);
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust(final Window closed) {
+        long samples = closed.samples.sum();
+        long averageNanos = Math.max(1, closed.latencyNanos.sum() / samples);
+        long baseline = baselineNanos.updateAndGet(previous -> averageNanos < previous ? averageNanos : previous + (averageNanos - previous) / BASELINE_DRIFT);
+        boolean failed = closed.failures.sum() > 0;
+        double toleratedNanos = Math.min(targetLatencyNanos, baseline * LATENCY_TOLERANCE);
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, toleratedNanos / averageNanos));
+        limit.updateAndGet(bits -> {
+            double current = Double.longBitsToDouble(bits);
+            if (closed.maxInFlight.get() * 2 < current) {
+                return bits;
+            }
+            double next = failed ? current * backoffRatio : gradient < 1.0 ? current * gradient : current + 1;
+            return Double.doubleToLongBits(Math.max(minLimit, Math.min(maxLimit, next)));
+        });
+    }
+
+    private static final class Window {
+        private final long started = System.nanoTime();
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicInteger maxInFlight;
+
+        private Window(final int inFlight) {
+            this.maxInFlight = new AtomicInteger(inFlight);
+        }
+
+        private void admitted(final int inFlight) {
+            maxInFlight.accumulateAndGet(inFlight, Math::max);
+        }
+
+        private void record(final long latency, final boolean failed) {
+            latencyNanos.add(latency);
+            if (failed) {
+                failures.increment();
+            }
+            samples.increment();
+        }
+
+        private boolean isComplete(final int limit) {
+            long count = samples.sum();
+            return count >= Math.max(MIN_WINDOW_SAMPLES, limit) || count > 0 && System.nanoTime() - started >= MAX_WINDOW_NANOS;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.cancun.hotel.controller;
+
+import com.cancun.hotel.domain.BookingResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static com.cancun.hotel.utils.Messages.OVERLOADED;
+
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String STREAM_SUFFIX = "/stream";
+
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final long retryAfterSeconds;
+    private final byte[] rejection;
+
+    public AdmissionControlFilter(
+            final AdaptiveConcurrencyLimit readLimit,
+            final AdaptiveConcurrencyLimit writeLimit,
+            final long retryAfterSeconds,
+            final ObjectMapper mapper
+    ) throws IOException {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejection = mapper.writeValueAsBytes(BookingResponse.of(List.of(String.format(OVERLOADED, retryAfterSeconds))));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return request.getRequestURI().endsWith(STREAM_SUFFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimit limit = READ_METHODS.contains(request.getMethod()) ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limit.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void reject(final HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejection.length);
+        response.getOutputStream().write(rejection);
+    }
+}
@@ -1,17 +1,36 @@
 package com.cancun.hotel.controller;
 
+import com.cancun.hotel.domain.AvailabilityChange;
 import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
 import com.cancun.hotel.domain.BookingRequest;
 import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.domain.EncodedJson;
+import com.cancun.hotel.service.AvailabilityFeed;
+import com.cancun.hotel.service.AvailabilityResponseCache;
 import com.cancun.hotel.service.BookingService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -19,19 +38,37 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import static com.cancun.hotel.utils.Messages.NO_BOOKING_FOUND_FOR_GIVEN_ID;
+import static com.cancun.hotel.utils.Messages.*;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/booking")
 @ApiResponses(value = {
         @ApiResponse(code = 500, message = "Server error")})
 public class BookingController {
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final int MAX_BATCH_SIZE = 100;
 
     private final BookingService service;
+    private final AvailabilityFeed availabilityFeed;
+    private final ObjectMapper mapper;
+    private final AvailabilityResponseCache bookedDates;
+    private final AvailabilityResponseCache availableDates;
+    private final Duration streamTimeout;
 
     @Autowired
-    public BookingController(final BookingService service) {
+    public BookingController(
+            final BookingService service,
+            final AvailabilityFeed availabilityFeed,
+            final ObjectMapper mapper,
+            @Value("${booking.stream.timeout-ms}") final long streamTimeoutMillis
+    ) {
         this.service = service;
+        this.streamTimeout = Duration.ofMillis(streamTimeoutMillis);
+        this.availabilityFeed = availabilityFeed;
+        this.mapper = mapper;
+        this.bookedDates = new AvailabilityResponseCache(mapper, service::availabilityVersion, service::findAllBookedDates);
+        this.availableDates = new AvailabilityResponseCache(mapper, service::availabilityVersion, service::findAllAvailableDates);
     }
 
     @ApiResponses(value = {
@@ -41,6 +78,42 @@ public class BookingController {
         return new ResponseEntity<>(BookingResponse.of(service.findAllBookings()), HttpStatus.OK);
     }
 
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "Bad request"),
+            @ApiResponse(code = 200, message = "Successful retrieval")})
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookingResponse<BookingPage>> listBookingPage(@RequestParam final int limit, @RequestParam(required = false) final String after) {
+        if (limit < 1 || limit > BookingPage.MAX_LIMIT) {
+            return new ResponseEntity<>(BookingResponse.of(List.of(String.format(INVALID_LIMIT, BookingPage.MAX_LIMIT))), HttpStatus.BAD_REQUEST);
+        }
+        Optional<BookingCursor> cursor = after == null ? Optional.empty() : BookingCursor.decode(after);
+        if (after != null && cursor.isEmpty()) {
+            return new ResponseEntity<>(BookingResponse.of(List.of(String.format(INVALID_CURSOR, after))), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(BookingResponse.of(service.findBookingPage(cursor.orElse(null), limit)), HttpStatus.OK);
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successful retrieval")})
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBookings(final WebRequest request) {
+        StreamingTimeoutInterceptor.extend(request, streamTimeout);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                service.forEachBooking(booking -> {
+                    try {
+                        generator.writeObject(booking);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
     @ApiResponses(value = {
             @ApiResponse(code = 404, message = "Booking not found"),
             @ApiResponse(code = 200, message = "Successful retrieval")})
@@ -53,25 +126,39 @@ public class BookingController {
     }
 
     @ApiResponses(value = {
+            @ApiResponse(code = 304, message = "Not modified"),
             @ApiResponse(code = 200, message = "Successful retrieval")})
     @GetMapping(value = "/booked", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<BookingResponse<Set<String>>> listAllBookedDates() {
-        Set<String> bookedDates = service.findAllBookedDates()
-                .stream()
-                .map(LocalDate::toString)
-                .collect(Collectors.toSet());
-        return new ResponseEntity<>(BookingResponse.of(bookedDates), HttpStatus.OK);
+    public ResponseEntity<EncodedJson<BookingResponse<Set<String>>>> listAllBookedDates(final WebRequest request) {
+        return cachedResponse(bookedDates.current(), request);
     }
 
     @ApiResponses(value = {
+            @ApiResponse(code = 304, message = "Not modified"),
             @ApiResponse(code = 200, message = "Successful retrieval")})
     @GetMapping(value = "/available", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<BookingResponse<Set<String>>> listAllAvailableDates() {
-        Set<String> availableDates = service.findAllAvailableDates()
-                .stream()
-                .map(LocalDate::toString)
-                .collect(Collectors.toSet());
-        return new ResponseEntity<>(BookingResponse.of(availableDates), HttpStatus.OK);
+    public ResponseEntity<EncodedJson<BookingResponse<Set<String>>>> listAllAvailableDates(final WebRequest request) {
+        return cachedResponse(availableDates.current(), request);
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successful subscription")})
+    @GetMapping(value = "/available/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BookingResponse<AvailabilityChange>>> streamAvailability() {
+        return availabilityFeed.subscribe();
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "Bad request"),
+            @ApiResponse(code = 200, message = "Successful retrieval")})
+    @GetMapping(value = "/rooms/available", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookingResponse<List<Long>>> listAvailableRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate checkOut) {
+        if (!checkIn.isBefore(checkOut)) {
+            return new ResponseEntity<>(BookingResponse.of(List.of(CHECK_IN_AFTER_CHECK_OUT)), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(BookingResponse.of(service.findAvailableRooms(checkIn, checkOut)), HttpStatus.OK);
     }
 
     @ApiResponses(value = {
@@ -79,19 +166,37 @@ public class BookingController {
             @ApiResponse(code = 201, message = "Created")})
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<BookingResponse<Booking>> createBooking(@RequestBody final BookingRequest request) {
-        Booking booking = Booking.of(UUID.randomUUID().toString(), request.checkIn, request.checkOut);
+        Booking booking = Booking.of(UUID.randomUUID().toString(), request.roomId, request.checkIn, request.checkOut);
         List<String> errors = service.validateBooking(booking);
         return errors.isEmpty() ?
                 new ResponseEntity<>(BookingResponse.of(service.saveBooking(booking)), HttpStatus.CREATED) :
                 new ResponseEntity<>(BookingResponse.of(errors), HttpStatus.BAD_REQUEST);
     }
 
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "Bad request"),
+            @ApiResponse(code = 200, message = "Partially created"),
+            @ApiResponse(code = 201, message = "Created")})
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookingResponse<List<BookingResponse<Booking>>>> createBookings(@RequestBody final List<BookingRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(BookingResponse.of(List.of(String.format(INVALID_BATCH_SIZE, MAX_BATCH_SIZE))), HttpStatus.BAD_REQUEST);
+        }
+        List<Booking> bookings = requests.stream()
+                .map(request -> Booking.of(UUID.randomUUID().toString(), request.roomId, request.checkIn, request.checkOut))
+                .collect(Collectors.toList());
+        List<BookingResponse<Booking>> results = service.saveBookings(bookings);
+        long created = results.stream().filter(result -> result.data != null).count();
+        HttpStatus status = created == results.size() ? HttpStatus.CREATED : created == 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return new ResponseEntity<>(BookingResponse.of(results), status);
+    }
+
     @ApiResponses(value = {
             @ApiResponse(code = 400, message = "Bad request"),
             @ApiResponse(code = 201, message = "Created")})
     @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<BookingResponse<Booking>> updateBooking(@PathVariable String id, @RequestBody final BookingRequest request) {
-        Booking booking = Booking.of(id, request.checkIn, request.checkOut);
+        Booking booking = Booking.of(id, request.roomId, request.checkIn, request.checkOut);
         List<String> errors = service.validateBooking(booking);
         return errors.isEmpty() ?
                 new ResponseEntity<>(BookingResponse.of(service.saveBooking(booking)), HttpStatus.CREATED) :
@@ -99,10 +204,24 @@ public class BookingController {
     }
 
     @ApiResponses(value = {
-            @ApiResponse(code = 204, message = "Created")})
+            @ApiResponse(code = 204, message = "Cancelled"),
+            @ApiResponse(code = 404, message = "Booking not found")})
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteBooking(@PathVariable String id) {
-        service.cancelBooking(id);
+        if (!service.cancelBooking(id)) {
+            return new ResponseEntity<>(BookingResponse.of(List.of(String.format(NO_BOOKING_FOUND_FOR_GIVEN_ID, id))), HttpStatus.NOT_FOUND);
+        }
         return ResponseEntity.noContent().build();
     }
+
+    private static <T> ResponseEntity<EncodedJson<T>> cachedResponse(final EncodedJson<T> json, final WebRequest request) {
+        if (request.checkNotModified(json.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(json.getETag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(json.getETag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
 }
@@ -1,7 +1,13 @@
 package com.cancun.hotel.controller;
 
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.service.BookingConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -9,22 +15,55 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.List;
+
 @ControllerAdvice
+@Profile("!reactive")
 public class BookingControllerExceptionHandler {
     private static final Logger log = LoggerFactory.getLogger(BookingControllerExceptionHandler.class);
 
+    private final SampledErrorLog errorLog;
+
+    @Autowired
+    public BookingControllerExceptionHandler(
+            @Value("${booking.error-log.traces-per-interval}") final int tracesPerInterval,
+            @Value("${booking.error-log.interval-ms}") final long intervalMillis,
+            final MeterRegistry meterRegistry
+    ) {
+        this.errorLog = new SampledErrorLog(log, tracesPerInterval, intervalMillis, Clock.systemUTC(), meterRegistry);
+    }
+
+    @PostConstruct
+    public void startErrorLog() {
+        errorLog.start();
+    }
+
+    @PreDestroy
+    public void stopErrorLog() {
+        errorLog.stop();
+    }
+
     @ExceptionHandler({MethodArgumentTypeMismatchException.class, HttpMessageNotReadableException.class})
     public ResponseEntity<String> badRequestHandler(Exception e){
         return logAndReturn(HttpStatus.BAD_REQUEST, e);
     }
 
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<BookingResponse<?>> conflictHandler(BookingConflictException e){
+        log.info(e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(BookingResponse.of(List.of(e.getMessage())));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> runtimeExceptionHandler(Exception e){
         return logAndReturn(HttpStatus.INTERNAL_SERVER_ERROR, e);
     }
 
-    private static ResponseEntity<String> logAndReturn(HttpStatus status, Exception e){
-        log.error(e.getMessage(), e);
+    private ResponseEntity<String> logAndReturn(HttpStatus status, Exception e){
+        errorLog.error(e);
         return ResponseEntity.status(status).body(e.getMessage());
     }
 }
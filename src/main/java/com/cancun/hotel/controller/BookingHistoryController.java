@@ -0,0 +1,67 @@
+package com.cancun.hotel.controller;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.service.BookingArchive;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.cancun.hotel.utils.Messages.*;
+
+@RestController
+@Profile("!reactive & !journal")
+@RequestMapping("/api/booking/history")
+@ApiResponses(value = {
+        @ApiResponse(code = 500, message = "Server error")})
+public class BookingHistoryController {
+    private static final String DEFAULT_LIMIT = "100";
+
+    private final BookingArchive archive;
+
+    @Autowired
+    public BookingHistoryController(final BookingArchive archive) {
+        this.archive = archive;
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "Bad request"),
+            @ApiResponse(code = 200, message = "Successful retrieval")})
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookingResponse<BookingPage>> listArchivedBookingPage(
+            @RequestParam(defaultValue = DEFAULT_LIMIT) final int limit,
+            @RequestParam(required = false) final String after) {
+        if (limit < 1 || limit > BookingPage.MAX_LIMIT) {
+            return new ResponseEntity<>(BookingResponse.of(List.of(String.format(INVALID_LIMIT, BookingPage.MAX_LIMIT))), HttpStatus.BAD_REQUEST);
+        }
+        Optional<BookingCursor> cursor = after == null ? Optional.empty() : BookingCursor.decode(after);
+        if (after != null && cursor.isEmpty()) {
+            return new ResponseEntity<>(BookingResponse.of(List.of(String.format(INVALID_CURSOR, after))), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(BookingResponse.of(archive.findArchivedBookingPage(cursor.orElse(null), limit)), HttpStatus.OK);
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(code = 404, message = "Booking not found"),
+            @ApiResponse(code = 200, message = "Successful retrieval")})
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookingResponse<Booking>> findArchivedBookingById(@PathVariable String id) {
+        return archive.findArchivedBookingById(id)
+                .map(booking -> new ResponseEntity<>(BookingResponse.of(booking), HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(BookingResponse.of(List.of(String.format(NO_BOOKING_FOUND_FOR_GIVEN_ID, id))), HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,46 @@
+package com.cancun.hotel.controller;
+
+import com.cancun.hotel.domain.EncodedJson;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+@Profile("!reactive")
+public class EncodedJsonHttpMessageConverter extends AbstractHttpMessageConverter<EncodedJson<?>> {
+
+    public EncodedJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return EncodedJson.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EncodedJson<?> readInternal(final Class<? extends EncodedJson<?>> clazz, final HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Encoded JSON is written only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(final EncodedJson<?> json, final MediaType contentType) {
+        return (long) json.getBody().length;
+    }
+
+    @Override
+    protected void writeInternal(final EncodedJson<?> json, final HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(json.getBody());
+    }
+}
@@ -0,0 +1,62 @@
+package com.cancun.hotel.controller;
+
+import com.cancun.hotel.repository.ReplicaRoutingDataSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String COOKIE = "booking-primary-until";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long windowMillis;
+    private final Clock clock;
+
+    public ReadYourWritesFilter(final long windowMillis, final Clock clock) {
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(clock.millis() + windowMillis));
+            cookie.setMaxAge((int) TimeUnit.MILLISECONDS.toSeconds(windowMillis + 999));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        ReplicaRoutingDataSource.pinToPrimary(write || wroteRecently(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.pinToPrimary(false);
+        }
+    }
+
+    private boolean wroteRecently(final HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return clock.millis() < Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
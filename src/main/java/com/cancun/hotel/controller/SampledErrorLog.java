@@ -0,0 +1,140 @@
+package com.cancun.hotel.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class SampledErrorLog {
+    private final Logger log;
+    private final int tracesPerInterval;
+    private final long intervalMillis;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public SampledErrorLog(
+            final Logger log,
+            final int tracesPerInterval,
+            final long intervalMillis,
+            final Clock clock,
+            final MeterRegistry meterRegistry
+    ) {
+        this.log = log;
+        this.tracesPerInterval = tracesPerInterval;
+        this.intervalMillis = intervalMillis;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public synchronized void start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "error-log-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public void error(final Throwable e) {
+        Window window = windows.computeIfAbsent(e.getClass(), Window::new);
+        Summary summary;
+        boolean logTrace;
+        window.lock.lock();
+        try {
+            summary = window.rollOver(clock.millis());
+            logTrace = window.logged < tracesPerInterval;
+            if (logTrace) {
+                window.logged++;
+            } else {
+                window.suppressed++;
+            }
+        } finally {
+            window.lock.unlock();
+        }
+        if (summary != null) {
+            summary.report(e.getClass());
+        }
+        if (logTrace) {
+            log.error(e.getMessage(), e);
+        } else {
+            window.suppressedCounter.increment();
+        }
+    }
+
+    public void flush() {
+        windows.forEach((type, window) -> {
+            Summary summary;
+            window.lock.lock();
+            try {
+                summary = window.suppressed > 0 ? window.rollOver(clock.millis()) : null;
+            } finally {
+                window.lock.unlock();
+            }
+            if (summary != null) {
+                summary.report(type);
+            }
+        });
+    }
+
+    private final class Window {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Counter suppressedCounter;
+        private long start = clock.millis();
+        private int logged;
+        private long suppressed;
+
+        private Window(final Class<?> type) {
+            this.suppressedCounter = Counter.builder("booking.errors.log.suppressed")
+                    .description("Error stack traces left out of the log by sampling")
+                    .tag("exception", type.getSimpleName())
+                    .register(meterRegistry);
+        }
+
+        private Summary rollOver(final long now) {
+            if (now - start < intervalMillis) {
+                return null;
+            }
+            Summary summary = suppressed > 0 ? new Summary(suppressed, start, now) : null;
+            start = now;
+            logged = 0;
+            suppressed = 0;
+            return summary;
+        }
+    }
+
+    private final class Summary {
+        private final long suppressed;
+        private final long from;
+        private final long to;
+
+        private Summary(final long suppressed, final long from, final long to) {
+            this.suppressed = suppressed;
+            this.from = from;
+            this.to = to;
+        }
+
+        private void report(final Class<?> type) {
+            log.error("{} more {} suppressed between {} and {}",
+                    suppressed, type.getName(), Instant.ofEpochMilli(from), Instant.ofEpochMilli(to));
+        }
+    }
+}
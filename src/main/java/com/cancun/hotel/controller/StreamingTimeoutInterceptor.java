@@ -0,0 +1,26 @@
+package com.cancun.hotel.controller;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+public class StreamingTimeoutInterceptor implements CallableProcessingInterceptor {
+    private static final String TIMEOUT_ATTRIBUTE = StreamingTimeoutInterceptor.class.getName() + ".timeout";
+
+    public static void extend(final WebRequest request, final Duration timeout) {
+        request.setAttribute(TIMEOUT_ATTRIBUTE, timeout, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(final NativeWebRequest request, final Callable<T> task) {
+        Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (timeout instanceof Duration && request instanceof AsyncWebRequest) {
+            ((AsyncWebRequest) request).setTimeout(((Duration) timeout).toMillis());
+        }
+    }
+}
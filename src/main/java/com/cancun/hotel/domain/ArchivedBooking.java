@@ -0,0 +1,55 @@
+package com.cancun.hotel.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "booking_archive", indexes = {
+        @Index(name = "idx_booking_archive_created", columnList = "created, id"),
+        @Index(name = "idx_booking_archive_check_out", columnList = "check_out")})
+public class ArchivedBooking {
+
+    @Id
+    private String id;
+    @Column(name = "room_id")
+    private Long roomId;
+    @Column(name = "check_in")
+    private LocalDate checkIn;
+    @Column(name = "check_out")
+    private LocalDate checkOut;
+    private Instant created;
+    private Instant archived;
+
+    private ArchivedBooking(){
+    }
+
+    private ArchivedBooking(final Booking booking, final Instant archived){
+        this.id = booking.getId();
+        this.roomId = booking.getRoomId();
+        this.checkIn = booking.getCheckIn();
+        this.checkOut = booking.getCheckOut();
+        this.created = booking.getCreated();
+        this.archived = archived;
+    }
+
+    public static ArchivedBooking of(final Booking booking, final Instant archived){
+        return new ArchivedBooking(booking, archived);
+    }
+
+    public Booking toBooking(){
+        return Booking.of(id, roomId, checkIn, checkOut, created);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Instant getArchived() {
+        return archived;
+    }
+}
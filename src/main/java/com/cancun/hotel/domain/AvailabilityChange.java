@@ -0,0 +1,38 @@
+package com.cancun.hotel.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@JsonInclude(NON_NULL)
+public class AvailabilityChange {
+
+    public final long version;
+    public final List<String> available;
+    public final List<String> booked;
+    public final List<String> free;
+
+    @JsonCreator
+    public AvailabilityChange(
+            @JsonProperty("version") final long version,
+            @JsonProperty("available") final List<String> available,
+            @JsonProperty("booked") final List<String> booked,
+            @JsonProperty("free") final List<String> free) {
+        this.version = version;
+        this.available = available;
+        this.booked = booked;
+        this.free = free;
+    }
+
+    public static AvailabilityChange snapshot(final long version, final List<String> available) {
+        return new AvailabilityChange(version, available, null, null);
+    }
+
+    public static AvailabilityChange delta(final long version, final List<String> booked, final List<String> free) {
+        return new AvailabilityChange(version, null, booked, free);
+    }
+}
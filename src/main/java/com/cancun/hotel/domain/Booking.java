@@ -3,43 +3,82 @@ package com.cancun.hotel.domain;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "booking")
+@Table(indexes = {
+        @Index(name = "idx_booking_check_in", columnList = "check_in"),
+        @Index(name = "idx_booking_check_out", columnList = "check_out"),
+        @Index(name = "idx_booking_room_dates", columnList = "room_id, check_in, check_out"),
+        @Index(name = "idx_booking_created", columnList = "created, id")})
 public class Booking {
 
     @Id
     private String id;
+    @Column(name = "room_id")
+    private Long roomId;
+    @Column(name = "check_in")
     private LocalDate checkIn;
+    @Column(name = "check_out")
     private LocalDate checkOut;
     private Instant created;
 
     private Booking(){
     }
 
-    private Booking(final String id, final LocalDate checkIn, final LocalDate checkOut){
+    private Booking(final String id, final Long roomId, final LocalDate checkIn, final LocalDate checkOut, final Instant created){
         this.id = id;
+        this.roomId = roomId;
         this.checkIn = checkIn;
         this.checkOut = checkOut;
-        this.created = Instant.now();
+        this.created = created;
+    }
+
+    public static Booking of(final String id, final LocalDate checkIn, final LocalDate checkOut){
+        return of(id, null, checkIn, checkOut);
     }
 
     @JsonCreator
     public static Booking of(
             @JsonProperty("id") final String id,
+            @JsonProperty("roomId") final Long roomId,
             @JsonProperty("checkIn")final LocalDate checkIn,
             @JsonProperty("checkOut")final LocalDate checkOut){
-        return new Booking(id, checkIn, checkOut);
+        return of(id, roomId, checkIn, checkOut, Instant.now());
+    }
+
+    public static Booking of(final String id, final Long roomId, final LocalDate checkIn, final LocalDate checkOut, final Instant created){
+        return new Booking(id, roomId, checkIn, checkOut, created);
+    }
+
+    public Booking inRoom(final Long roomId){
+        return new Booking(id, roomId, checkIn, checkOut, created);
+    }
+
+    public Booking createdAt(final Instant created){
+        return new Booking(id, roomId, checkIn, checkOut, created);
     }
 
     public String getId() {
         return id;
     }
 
+    public Long getRoomId() {
+        return roomId;
+    }
+
     public LocalDate getCheckIn() {
         return checkIn;
     }
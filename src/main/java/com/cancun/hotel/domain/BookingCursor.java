@@ -0,0 +1,41 @@
+package com.cancun.hotel.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+public class BookingCursor {
+    private static final char SEPARATOR = '|';
+
+    public final Instant created;
+    public final String id;
+
+    private BookingCursor(final Instant created, final String id) {
+        this.created = created;
+        this.id = id;
+    }
+
+    public static BookingCursor of(final Booking booking) {
+        return new BookingCursor(booking.getCreated(), booking.getId());
+    }
+
+    public static Optional<BookingCursor> decode(final String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new BookingCursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String encode() {
+        String raw = created.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
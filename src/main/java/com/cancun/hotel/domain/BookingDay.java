@@ -0,0 +1,89 @@
+package com.cancun.hotel.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@IdClass(BookingDay.Key.class)
+@Table(name = "booking_day", indexes = @Index(name = "idx_booking_day_booking", columnList = "booking_id"))
+public class BookingDay {
+
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+    @Id
+    private LocalDate night;
+    @Column(name = "booking_id", nullable = false)
+    private String bookingId;
+
+    private BookingDay(){
+    }
+
+    private BookingDay(final Long roomId, final LocalDate night, final String bookingId){
+        this.roomId = roomId;
+        this.night = night;
+        this.bookingId = bookingId;
+    }
+
+    public static BookingDay of(final Long roomId, final LocalDate night, final String bookingId){
+        return new BookingDay(roomId, night, bookingId);
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BookingDay)) {
+            return false;
+        }
+        BookingDay day = (BookingDay) other;
+        return Objects.equals(roomId, day.roomId) && Objects.equals(night, day.night);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(roomId, night);
+    }
+
+    public static class Key implements Serializable {
+        private Long roomId;
+        private LocalDate night;
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Objects.equals(roomId, key.roomId) && Objects.equals(night, key.night);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(roomId, night);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.cancun.hotel.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@JsonInclude(NON_NULL)
+public class BookingPage {
+    public static final int MAX_LIMIT = 1000;
+
+    public final List<Booking> bookings;
+    public final String next;
+
+    @JsonCreator
+    public BookingPage(@JsonProperty("bookings") final List<Booking> bookings, @JsonProperty("next") final String next) {
+        this.bookings = bookings;
+        this.next = next;
+    }
+}
@@ -6,11 +6,17 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDate;
 
 public class BookingRequest {
+    public final Long roomId;
     public final LocalDate checkIn;
     public final LocalDate checkOut;
 
+    public BookingRequest(final LocalDate checkIn, final LocalDate checkOut){
+        this(null, checkIn, checkOut);
+    }
+
     @JsonCreator
-    public BookingRequest(@JsonProperty("checkIn") final LocalDate checkIn, @JsonProperty("checkOut") final LocalDate checkOut){
+    public BookingRequest(@JsonProperty("roomId") final Long roomId, @JsonProperty("checkIn") final LocalDate checkIn, @JsonProperty("checkOut") final LocalDate checkOut){
+        this.roomId = roomId;
         this.checkIn = checkIn;
         this.checkOut = checkOut;
     }
@@ -0,0 +1,22 @@
+package com.cancun.hotel.domain;
+
+import org.springframework.util.DigestUtils;
+
+public final class EncodedJson<T> {
+
+    private final byte[] body;
+    private final String eTag;
+
+    public EncodedJson(final byte[] body) {
+        this.body = body;
+        this.eTag = String.format("\"%s\"", DigestUtils.md5DigestAsHex(body));
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
@@ -0,0 +1,38 @@
+package com.cancun.hotel.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+public class Room {
+
+    @Id
+    private Long id;
+    private String name;
+
+    private Room(){
+    }
+
+    private Room(final Long id, final String name){
+        this.id = id;
+        this.name = name;
+    }
+
+    @JsonCreator
+    public static Room of(
+            @JsonProperty("id") final Long id,
+            @JsonProperty("name") final String name){
+        return new Room(id, name);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.domain.Room;
+import com.cancun.hotel.repository.BookingWindowSource;
+import com.cancun.hotel.repository.RoomStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveBlockingStores {
+
+    @Bean
+    public RoomStore roomStore(final ReactiveRoomRepository rooms) {
+        return new RoomStore() {
+            @Override
+            public long count() {
+                return await(rooms.count());
+            }
+
+            @Override
+            public <S extends Room> Iterable<S> saveAll(final Iterable<S> saved) {
+                await(rooms.saveAll(saved));
+                return saved;
+            }
+
+            @Override
+            public List<Room> findAll() {
+                return await(rooms.findAll().collectList());
+            }
+        };
+    }
+
+    @Bean
+    public BookingWindowSource bookingWindowSource(final ReactiveBookingRepository bookings) {
+        return (from, to) -> await(bookings.findOverlapping(from, to).collectList());
+    }
+
+    private static <T> T await(final Mono<T> result) {
+        if (Schedulers.isInNonBlockingThread()) {
+            throw new IllegalStateException(String.format(
+                    "Room and occupancy reads block and cannot run on %s, subscribe on Schedulers.boundedElastic() instead",
+                    Thread.currentThread().getName()));
+        }
+        return result.block();
+    }
+}
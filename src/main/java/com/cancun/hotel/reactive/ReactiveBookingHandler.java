@@ -0,0 +1,203 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.domain.AvailabilityChange;
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
+import com.cancun.hotel.domain.BookingRequest;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.domain.EncodedJson;
+import com.cancun.hotel.service.AvailabilityFeed;
+import com.cancun.hotel.service.AvailabilityResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.cancun.hotel.utils.Messages.*;
+
+@Component
+@Profile("reactive")
+public class ReactiveBookingHandler {
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final ParameterizedTypeReference<List<BookingRequest>> BOOKING_REQUESTS = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<ServerSentEvent<BookingResponse<AvailabilityChange>>> AVAILABILITY_EVENTS = new ParameterizedTypeReference<>() {
+    };
+
+    private final ReactiveBookingService service;
+    private final AvailabilityFeed availabilityFeed;
+    private final AvailabilityResponseCache bookedDates;
+    private final AvailabilityResponseCache availableDates;
+
+    @Autowired
+    public ReactiveBookingHandler(final ReactiveBookingService service, final AvailabilityFeed availabilityFeed, final ObjectMapper mapper) {
+        this.service = service;
+        this.availabilityFeed = availabilityFeed;
+        this.bookedDates = new AvailabilityResponseCache(mapper, service::availabilityVersion, service::findAllBookedDates);
+        this.availableDates = new AvailabilityResponseCache(mapper, service::availabilityVersion, service::findAllAvailableDates);
+    }
+
+    public Mono<ServerResponse> listAllBookings(final ServerRequest request) {
+        return service.findAllBookings()
+                .collectList()
+                .flatMap(bookings -> ok(BookingResponse.of(bookings)));
+    }
+
+    public Mono<ServerResponse> listBookingPage(final ServerRequest request) {
+        int limit = intParam(request, "limit");
+        if (limit < 1 || limit > BookingPage.MAX_LIMIT) {
+            return badRequest(List.of(String.format(INVALID_LIMIT, BookingPage.MAX_LIMIT)));
+        }
+        Optional<String> after = request.queryParam("after");
+        Optional<BookingCursor> cursor = after.flatMap(BookingCursor::decode);
+        if (after.isPresent() && cursor.isEmpty()) {
+            return badRequest(List.of(String.format(INVALID_CURSOR, after.get())));
+        }
+        return service.findBookingPage(cursor.orElse(null), limit)
+                .flatMap(page -> ok(BookingResponse.of(page)));
+    }
+
+    public Mono<ServerResponse> streamAllBookings(final ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(service.findAllBookings(), Booking.class);
+    }
+
+    public Mono<ServerResponse> findBookingById(final ServerRequest request) {
+        String id = request.pathVariable("id");
+        return service.findBookingById(id)
+                .flatMap(booking -> ok(BookingResponse.of(booking)))
+                .switchIfEmpty(Mono.defer(() -> notFound(id)));
+    }
+
+    public Mono<ServerResponse> listAllBookedDates(final ServerRequest request) {
+        return cachedResponse(bookedDates.current(), request);
+    }
+
+    public Mono<ServerResponse> listAllAvailableDates(final ServerRequest request) {
+        return cachedResponse(availableDates.current(), request);
+    }
+
+    public Mono<ServerResponse> streamAvailability(final ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(availabilityFeed.subscribe(), AVAILABILITY_EVENTS);
+    }
+
+    public Mono<ServerResponse> listAvailableRooms(final ServerRequest request) {
+        LocalDate checkIn = dateParam(request, "checkIn");
+        LocalDate checkOut = dateParam(request, "checkOut");
+        if (!checkIn.isBefore(checkOut)) {
+            return badRequest(List.of(CHECK_IN_AFTER_CHECK_OUT));
+        }
+        return ok(BookingResponse.of(service.findAvailableRooms(checkIn, checkOut)));
+    }
+
+    public Mono<ServerResponse> createBooking(final ServerRequest request) {
+        return request.bodyToMono(BookingRequest.class)
+                .flatMap(body -> save(Booking.of(UUID.randomUUID().toString(), body.roomId, body.checkIn, body.checkOut)));
+    }
+
+    public Mono<ServerResponse> createBookings(final ServerRequest request) {
+        return request.bodyToMono(BOOKING_REQUESTS)
+                .flatMap(requests -> {
+                    if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+                        return badRequest(List.of(String.format(INVALID_BATCH_SIZE, MAX_BATCH_SIZE)));
+                    }
+                    List<Booking> bookings = requests.stream()
+                            .map(body -> Booking.of(UUID.randomUUID().toString(), body.roomId, body.checkIn, body.checkOut))
+                            .collect(Collectors.toList());
+                    return service.saveBookings(bookings).flatMap(results -> {
+                        long created = results.stream().filter(result -> result.data != null).count();
+                        HttpStatus status = created == results.size() ? HttpStatus.CREATED : created == 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+                        return ServerResponse.status(status)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(BookingResponse.of(results));
+                    });
+                });
+    }
+
+    public Mono<ServerResponse> updateBooking(final ServerRequest request) {
+        String id = request.pathVariable("id");
+        return request.bodyToMono(BookingRequest.class)
+                .flatMap(body -> save(Booking.of(id, body.roomId, body.checkIn, body.checkOut)));
+    }
+
+    public Mono<ServerResponse> deleteBooking(final ServerRequest request) {
+        String id = request.pathVariable("id");
+        return service.cancelBooking(id)
+                .flatMap(cancelled -> cancelled ? ServerResponse.noContent().build() : notFound(id));
+    }
+
+    private static Mono<ServerResponse> notFound(final String id) {
+        return ServerResponse.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(BookingResponse.of(List.of(String.format(NO_BOOKING_FOUND_FOR_GIVEN_ID, id))));
+    }
+
+    private Mono<ServerResponse> save(final Booking booking) {
+        List<String> errors = service.validateBooking(booking);
+        if (!errors.isEmpty()) {
+            return badRequest(errors);
+        }
+        return service.saveBooking(booking)
+                .flatMap(saved -> ServerResponse.status(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(BookingResponse.of(saved)));
+    }
+
+    private static Mono<ServerResponse> cachedResponse(final EncodedJson<?> json, final ServerRequest request) {
+        return request.checkNotModified(json.getETag()).switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                .eTag(json.getETag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json.getBody())));
+    }
+
+    private static Mono<ServerResponse> ok(final Object body) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body);
+    }
+
+    private static Mono<ServerResponse> badRequest(final List<String> errors) {
+        return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(BookingResponse.of(errors));
+    }
+
+    private static int intParam(final ServerRequest request, final String name) {
+        String value = request.queryParam(name).orElseThrow(() -> new ServerWebInputException(String.format("Required parameter '%s' is not present", name)));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException(String.format("Invalid value '%s' for parameter '%s'", value, name));
+        }
+    }
+
+    private static LocalDate dateParam(final ServerRequest request, final String name) {
+        String value = request.queryParam(name).orElseThrow(() -> new ServerWebInputException(String.format("Required parameter '%s' is not present", name)));
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ServerWebInputException(String.format("Invalid value '%s' for parameter '%s'", value, name));
+        }
+    }
+}
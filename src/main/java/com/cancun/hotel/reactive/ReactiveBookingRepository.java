@@ -0,0 +1,138 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingDay;
+import com.cancun.hotel.utils.DateUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+@Repository
+@Profile("reactive")
+@DependsOnDatabaseInitialization
+public class ReactiveBookingRepository {
+
+    private final R2dbcEntityTemplate template;
+    private final DateUtils dateUtils;
+
+    @Autowired
+    public ReactiveBookingRepository(final R2dbcEntityTemplate template, final DateUtils dateUtils) {
+        this.template = template;
+        this.dateUtils = dateUtils;
+    }
+
+    public Flux<Booking> findAll() {
+        return template.select(Booking.class).all();
+    }
+
+    public Flux<Booking> findPage(final BookingCursor after, final int limit) {
+        Criteria criteria = after == null ?
+                Criteria.empty() :
+                where("created").greaterThan(after.created).or(where("created").is(after.created).and("id").greaterThan(after.id));
+        return template.select(query(criteria).sort(Sort.by("created", "id")).limit(limit), Booking.class);
+    }
+
+    public Mono<Booking> findById(final String id) {
+        return template.selectOne(query(where("id").is(id)), Booking.class);
+    }
+
+    public Flux<Booking> findOverlapping(final LocalDate from, final LocalDate to) {
+        return template.select(query(where("checkOut").greaterThanOrEquals(from).and("checkIn").lessThanOrEquals(to)), Booking.class);
+    }
+
+    public Mono<Boolean> existsOverlapping(final String id, final Long roomId, final Long defaultRoomId, final LocalDate from, final LocalDate to) {
+        Criteria room = roomId.equals(defaultRoomId) ? where("roomId").is(roomId).or("roomId").isNull() : where("roomId").is(roomId);
+        return template.exists(query(where("id").not(id)
+                .and(room)
+                .and("checkOut").greaterThanOrEquals(from)
+                .and("checkIn").lessThanOrEquals(to)), Booking.class);
+    }
+
+    public Mono<Booking> save(final Booking booking) {
+        return template.update(query(where("id").is(booking.getId())), Update
+                        .update("roomId", booking.getRoomId())
+                        .set("checkIn", booking.getCheckIn())
+                        .set("checkOut", booking.getCheckOut()), Booking.class)
+                .flatMap(updated -> updated > 0 ? findById(booking.getId()) : insert(booking).thenReturn(booking));
+    }
+
+    public Mono<Void> insertAll(final List<Booking> bookings) {
+        return Flux.fromIterable(bookings).concatMap(this::insert).then();
+    }
+
+    private Mono<Void> insert(final Booking booking) {
+        return template.getDatabaseClient()
+                .sql("insert into booking (id, room_id, check_in, check_out, created) values (:id, :roomId, :checkIn, :checkOut, :created)")
+                .bind("id", booking.getId())
+                .bind("roomId", booking.getRoomId())
+                .bind("checkIn", booking.getCheckIn())
+                .bind("checkOut", booking.getCheckOut())
+                .bind("created", booking.getCreated())
+                .then();
+    }
+
+    public Mono<Integer> deleteById(final String id) {
+        return template.delete(query(where("id").is(id)), Booking.class);
+    }
+
+    public Mono<Void> claimDays(final List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return Mono.empty();
+        }
+        Set<BookingDay> wanted = bookings.stream()
+                .flatMap(booking -> dateUtils.streamOf(booking.getCheckIn(), booking.getCheckOut())
+                        .map(night -> BookingDay.of(booking.getRoomId(), night, booking.getId())))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return template.getDatabaseClient()
+                .sql("select room_id, night, booking_id from booking_day where booking_id in (:bookingIds)")
+                .bind("bookingIds", bookings.stream().map(Booking::getId).collect(Collectors.toSet()))
+                .map(row -> BookingDay.of(row.get("room_id", Long.class), row.get("night", LocalDate.class), row.get("booking_id", String.class)))
+                .all()
+                .filter(day -> !wanted.remove(day))
+                .concatMap(this::deleteDay)
+                .thenMany(Flux.defer(() -> Flux.fromIterable(wanted)))
+                .concatMap(this::insertDay)
+                .then();
+    }
+
+    public Mono<Void> releaseDays(final String bookingId) {
+        return template.getDatabaseClient()
+                .sql("delete from booking_day where booking_id = :bookingId")
+                .bind("bookingId", bookingId)
+                .then();
+    }
+
+    private Mono<Void> insertDay(final BookingDay day) {
+        return template.getDatabaseClient()
+                .sql("insert into booking_day (room_id, night, booking_id) values (:roomId, :night, :bookingId)")
+                .bind("roomId", day.getRoomId())
+                .bind("night", day.getNight())
+                .bind("bookingId", day.getBookingId())
+                .then();
+    }
+
+    private Mono<Void> deleteDay(final BookingDay day) {
+        return template.getDatabaseClient()
+                .sql("delete from booking_day where room_id = :roomId and night = :night")
+                .bind("roomId", day.getRoomId())
+                .bind("night", day.getNight())
+                .then();
+    }
+}
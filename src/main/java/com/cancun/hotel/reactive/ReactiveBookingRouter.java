@@ -0,0 +1,98 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.controller.SampledErrorLog;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.service.BookingConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.List;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveBookingRouter {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveBookingRouter.class);
+
+    private final SampledErrorLog errorLog;
+
+    @Autowired
+    public ReactiveBookingRouter(
+            @Value("${booking.error-log.traces-per-interval}") final int tracesPerInterval,
+            @Value("${booking.error-log.interval-ms}") final long intervalMillis,
+            final MeterRegistry meterRegistry
+    ) {
+        this.errorLog = new SampledErrorLog(log, tracesPerInterval, intervalMillis, Clock.systemUTC(), meterRegistry);
+    }
+
+    @PostConstruct
+    public void startErrorLog() {
+        errorLog.start();
+    }
+
+    @PreDestroy
+    public void stopErrorLog() {
+        errorLog.stop();
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> bookingRoutes(final ReactiveBookingHandler handler) {
+        return route()
+                .path("/api/booking", builder -> builder
+                        .GET("/stream", handler::streamAllBookings)
+                        .GET("/booked", handler::listAllBookedDates)
+                        .GET("/available/stream", handler::streamAvailability)
+                        .GET("/available", handler::listAllAvailableDates)
+                        .GET("/rooms/available", handler::listAvailableRooms)
+                        .POST("/batch", contentType(MediaType.APPLICATION_JSON), handler::createBookings)
+                        .GET("/{id}", handler::findBookingById)
+                        .PUT("/{id}", contentType(MediaType.APPLICATION_JSON), handler::updateBooking)
+                        .DELETE("/{id}", handler::deleteBooking)
+                        .GET("", queryParam("limit", limit -> true), handler::listBookingPage)
+                        .GET("", handler::listAllBookings)
+                        .POST("", contentType(MediaType.APPLICATION_JSON), handler::createBooking))
+                .filter((request, next) -> Mono.defer(() -> next.handle(request)).onErrorResume(this::handleError))
+                .build();
+    }
+
+    private Mono<ServerResponse> handleError(final Throwable e) {
+        if (e instanceof BookingConflictException) {
+            log.info(e.getMessage());
+            return ServerResponse.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(BookingResponse.of(List.of(e.getMessage())));
+        }
+        HttpStatus status = e instanceof ServerWebInputException || e instanceof DecodingException ?
+                HttpStatus.BAD_REQUEST :
+                HttpStatus.INTERNAL_SERVER_ERROR;
+        errorLog.error(e);
+        return ServerResponse.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue(String.valueOf(e.getMessage()));
+    }
+}
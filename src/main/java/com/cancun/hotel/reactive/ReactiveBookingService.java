@@ -0,0 +1,165 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.service.BookingBatch;
+import com.cancun.hotel.service.BookingConflictException;
+import com.cancun.hotel.service.BookingValidator;
+import com.cancun.hotel.utils.Rejection;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.cancun.hotel.utils.Messages.ALREADY_BOOKED;
+
+@Service
+@Profile("reactive")
+public class ReactiveBookingService {
+
+    private final ReactiveBookingRepository repository;
+    private final BookingOccupancyIndex occupancyIndex;
+    private final BookingValidator validator;
+    private final TransactionalOperator transactionalOperator;
+
+    @Autowired
+    public ReactiveBookingService(
+            final ReactiveBookingRepository repository,
+            final BookingOccupancyIndex occupancyIndex,
+            final BookingValidator validator,
+            final TransactionalOperator transactionalOperator,
+            final MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.occupancyIndex = occupancyIndex;
+        this.validator = validator;
+        this.transactionalOperator = transactionalOperator;
+        Gauge.builder("booking.window.occupied.days", occupancyIndex, BookingOccupancyIndex::occupiedDays)
+                .description("Room nights taken inside the bookable window")
+                .register(meterRegistry);
+    }
+
+    public Flux<Booking> findAllBookings() {
+        return repository.findAll();
+    }
+
+    public Mono<BookingPage> findBookingPage(final BookingCursor after, final int limit) {
+        return repository.findPage(after, limit + 1)
+                .collectList()
+                .map(bookings -> {
+                    if (bookings.size() <= limit) {
+                        return new BookingPage(bookings, null);
+                    }
+                    List<Booking> page = bookings.subList(0, limit);
+                    return new BookingPage(page, BookingCursor.of(page.get(limit - 1)).encode());
+                });
+    }
+
+    public Mono<Booking> findBookingById(final String id) {
+        return repository.findById(id);
+    }
+
+    public Set<LocalDate> findAllBookedDates() {
+        return occupancyIndex.bookedDates();
+    }
+
+    public Set<LocalDate> findAllAvailableDates() {
+        return occupancyIndex.availableDates();
+    }
+
+    public List<Long> findAvailableRooms(final LocalDate checkIn, final LocalDate checkOut) {
+        return occupancyIndex.availableRooms(checkIn, checkOut);
+    }
+
+    public long availabilityVersion() {
+        return occupancyIndex.version();
+    }
+
+    public List<String> validateBooking(final Booking booking) {
+        return validator.validate(booking);
+    }
+
+    public Mono<Booking> saveBooking(final Booking booking) {
+        return reserve(booking).switchIfEmpty(Mono.error(this::conflict)).flatMap(reservation -> {
+            Booking roomBooking = booking.getRoomId() == null ? booking.inRoom(reservation.getRoomId()) : booking;
+            return repository.existsOverlapping(roomBooking.getId(), roomBooking.getRoomId(), occupancyIndex.defaultRoomId(),
+                            roomBooking.getCheckIn(), roomBooking.getCheckOut())
+                    .flatMap(exists -> exists ? Mono.<Booking>error(conflict()) : repository.save(roomBooking))
+                    .flatMap(saved -> repository.claimDays(List.of(saved)).thenReturn(saved))
+                    .as(transactionalOperator::transactional)
+                    .onErrorMap(DataIntegrityViolationException.class, e -> conflict())
+                    .doOnSuccess(saved -> reservation.confirm())
+                    .doOnError(e -> reservation.cancel())
+                    .doOnCancel(reservation::cancel);
+        });
+    }
+
+    public Mono<List<BookingResponse<Booking>>> saveBookings(final List<Booking> bookings) {
+        return onBlockingThreadWhenShared(Mono.defer(() -> {
+            BookingBatch batch = BookingBatch.reserve(bookings, validator, occupancyIndex);
+            if (batch.accepted().isEmpty()) {
+                return Mono.just(batch.results());
+            }
+            return repository.findOverlapping(batch.firstCheckIn(), batch.lastCheckOut())
+                    .collectList()
+                    .flatMap(stored -> {
+                        batch.rejectStoredOverlaps(stored, occupancyIndex.defaultRoomId());
+                        List<Booking> accepted = batch.accepted();
+                        return repository.insertAll(accepted).then(repository.claimDays(accepted));
+                    })
+                    .as(transactionalOperator::transactional)
+                    .onErrorMap(DataIntegrityViolationException.class, e -> conflict())
+                    .then(Mono.fromCallable(batch::results))
+                    .doOnSuccess(results -> batch.confirm())
+                    .doOnError(e -> batch.cancel())
+                    .doOnCancel(batch::cancel);
+        }));
+    }
+
+    public Mono<Boolean> cancelBooking(final String id) {
+        return repository.deleteById(id)
+                .filter(deleted -> deleted > 0)
+                .flatMap(deleted -> repository.releaseDays(id).thenReturn(true))
+                .as(transactionalOperator::transactional)
+                .doOnNext(cancelled -> occupancyIndex.release(id))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<BookingOccupancyIndex.Reservation> reserve(final Booking booking) {
+        return Mono.defer(() -> {
+            Optional<BookingOccupancyIndex.Reservation> reservation = occupancyIndex.tryReserve(booking);
+            if (reservation.isPresent() || !occupancyIndex.isStale()) {
+                return Mono.justOrEmpty(reservation);
+            }
+            return Mono.fromCallable(() -> {
+                        occupancyIndex.refresh();
+                        return occupancyIndex.tryReserve(booking);
+                    })
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    private <T> Mono<T> onBlockingThreadWhenShared(final Mono<T> reserveAll) {
+        return occupancyIndex.isShared() ? reserveAll.subscribeOn(Schedulers.boundedElastic()) : reserveAll;
+    }
+
+    private BookingConflictException conflict() {
+        validator.countRejection(Rejection.ALREADY_BOOKED);
+        return new BookingConflictException(ALREADY_BOOKED);
+    }
+}
@@ -0,0 +1,44 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.domain.Room;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+@DependsOnDatabaseInitialization
+public class ReactiveRoomRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    @Autowired
+    public ReactiveRoomRepository(final R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    public Mono<Long> count() {
+        return template.getDatabaseClient()
+                .sql("select count(*) from room")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Void> saveAll(final Iterable<? extends Room> rooms) {
+        return Flux.fromIterable(rooms)
+                .concatMap(room -> template.getDatabaseClient()
+                        .sql("insert into room (id, name) values (:id, :name)")
+                        .bind("id", room.getId())
+                        .bind("name", room.getName())
+                        .then())
+                .then();
+    }
+
+    public Flux<Room> findAll() {
+        return template.select(Room.class).all();
+    }
+}
@@ -0,0 +1,21 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.ArchivedBooking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BookingArchiveRepository extends CrudRepository<ArchivedBooking, String>, BookingArchiveRepositoryCustom {
+
+    @Query("select b from ArchivedBooking b order by b.created, b.id")
+    List<ArchivedBooking> findFirstPage(Pageable pageable);
+
+    @Query("select b from ArchivedBooking b where b.created > :created or (b.created = :created and b.id > :id) order by b.created, b.id")
+    List<ArchivedBooking> findPageAfter(@Param("created") Instant created, @Param("id") String id, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.cancun.hotel.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BookingArchiveRepositoryCustom {
+    List<String> archiveCheckedOutBefore(LocalDate day, int limit, Instant archived);
+}
@@ -0,0 +1,52 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.ArchivedBooking;
+import com.cancun.hotel.domain.Booking;
+import org.hibernate.LockOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BookingArchiveRepositoryCustomImpl implements BookingArchiveRepositoryCustom {
+    private static final String LOCK_TIMEOUT = "javax.persistence.lock.timeout";
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public BookingArchiveRepositoryCustomImpl(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<String> archiveCheckedOutBefore(final LocalDate day, final int limit, final Instant archived) {
+        List<Booking> expired = entityManager
+                .createQuery("select b from Booking b where b.checkOut < :day order by b.checkOut, b.id", Booking.class)
+                .setParameter("day", day)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+                .getResultList();
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+        List<String> ids = expired.stream().map(Booking::getId).collect(Collectors.toList());
+        entityManager.createQuery("delete from BookingDay d where d.bookingId in :bookingIds")
+                .setParameter("bookingIds", ids)
+                .executeUpdate();
+        entityManager.createQuery("delete from ArchivedBooking a where a.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        for (Booking booking : expired) {
+            entityManager.persist(ArchivedBooking.of(booking, archived));
+            entityManager.remove(booking);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+}
@@ -0,0 +1,11 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+
+import java.util.Collection;
+
+public interface BookingDayStore {
+    void claim(Collection<Booking> bookings);
+
+    void release(String bookingId);
+}
@@ -0,0 +1,441 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+@Component
+@Profile("journal")
+public class BookingJournal {
+    private static final Logger log = LoggerFactory.getLogger(BookingJournal.class);
+    private static final String JOURNAL_FILE = "bookings.journal";
+    private static final String SNAPSHOT_FILE = "bookings.snapshot";
+    private static final Comparator<Booking> CREATION_ORDER = Comparator.comparing(Booking::getCreated).thenComparing(Booking::getId);
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_BATCH = 1024;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final long NONE = Long.MIN_VALUE;
+    private static final Append CLOSE = new Append(ByteBuffer.allocate(0), () -> {
+    });
+
+    private final Path directory;
+    private final long snapshotIntervalMillis;
+    private final long snapshotBytes;
+    private final DistributionSummary batchSize;
+    private final Map<String, Booking> bookings = new ConcurrentHashMap<>();
+    private final NavigableSet<Booking> creationOrder = new ConcurrentSkipListSet<>(CREATION_ORDER);
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private boolean closed;
+    private FileChannel channel;
+    private Thread writer;
+    private long journalSize;
+    private long lastSnapshot;
+    private IOException failure;
+    private volatile Throwable writerFailure;
+
+    @Autowired
+    public BookingJournal(
+            @Value("${booking.journal.directory}") final String directory,
+            @Value("${booking.journal.snapshot-interval-ms}") final long snapshotIntervalMillis,
+            @Value("${booking.journal.snapshot-bytes}") final long snapshotBytes,
+            final MeterRegistry meterRegistry
+    ) {
+        this.directory = Paths.get(directory);
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        this.snapshotBytes = snapshotBytes;
+        this.batchSize = DistributionSummary.builder("booking.journal.batch.size")
+                .description("Records made durable by one fsync of the booking journal")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() {
+        try {
+            Files.createDirectories(directory);
+            Path snapshot = directory.resolve(SNAPSHOT_FILE);
+            if (Files.exists(snapshot)) {
+                try (FileChannel in = FileChannel.open(snapshot, READ)) {
+                    long end = replay(in);
+                    if (end != in.size()) {
+                        throw new IllegalStateException(String.format("Booking snapshot %s is corrupt at byte %s", snapshot, end));
+                    }
+                }
+            }
+            int fromSnapshot = bookings.size();
+            channel = FileChannel.open(directory.resolve(JOURNAL_FILE), CREATE, READ, WRITE);
+            long end = replay(channel);
+            if (end < channel.size()) {
+                log.warn("Dropping {} bytes of incomplete records at the end of the booking journal", channel.size() - end);
+                channel.truncate(end);
+                channel.force(true);
+            }
+            channel.position(end);
+            journalSize = end;
+            lastSnapshot = System.nanoTime();
+            log.info("Recovered {} bookings from {}, {} from the snapshot and {} journal bytes replayed",
+                    bookings.size(), directory, fromSnapshot, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writer = new Thread(this::write, "booking-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void close() {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(CLOSE);
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            writer.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Could not close the booking journal", e);
+        }
+    }
+
+    public Optional<Booking> find(final String id) {
+        return Optional.ofNullable(bookings.get(id));
+    }
+
+    public Collection<Booking> bookings() {
+        return Collections.unmodifiableCollection(bookings.values());
+    }
+
+    public Collection<Booking> inCreationOrder() {
+        return Collections.unmodifiableSet(creationOrder);
+    }
+
+    public Collection<Booking> createdAfter(final Instant created, final String id) {
+        return Collections.unmodifiableSet(creationOrder.tailSet(Booking.of(id, null, null, null, created), false));
+    }
+
+    public int size() {
+        return bookings.size();
+    }
+
+    public void put(final Booking booking) {
+        append(List.of(encodePut(booking)), () -> apply(booking));
+    }
+
+    public void putAll(final Collection<? extends Booking> puts) {
+        List<Booking> copy = List.copyOf(puts);
+        append(copy.stream().map(BookingJournal::encodePut).collect(Collectors.toList()), () -> copy.forEach(this::apply));
+    }
+
+    public void remove(final String id) {
+        append(List.of(encodeDelete(id)), () -> unapply(id));
+    }
+
+    private void append(final List<byte[]> records, final Runnable apply) {
+        Append append = new Append(frames(records), apply);
+        appendLock.lock();
+        try {
+            if (writerFailure != null) {
+                throw new IllegalStateException("Booking journal writer has stopped", writerFailure);
+            }
+            if (closed) {
+                throw new IllegalStateException("Booking journal is closed");
+            }
+            queue.add(append);
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            append.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the booking journal", e);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private void write() {
+        List<Append> batch = new ArrayList<>();
+        boolean closing = false;
+        try {
+            while (!closing) {
+                try {
+                    Append first = queue.poll(snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, MAX_BATCH - 1);
+                    }
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                closing = batch.remove(CLOSE);
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                    batch.clear();
+                }
+                if (journalSize > 0 && (closing || snapshotDue())) {
+                    snapshot();
+                }
+            }
+        } catch (Throwable e) {
+            log.error("Booking journal writer stopped, rejecting further writes", e);
+            fail(batch, e);
+        }
+    }
+
+    private void fail(final List<Append> batch, final Throwable cause) {
+        appendLock.lock();
+        try {
+            writerFailure = cause;
+        } finally {
+            appendLock.unlock();
+        }
+        queue.drainTo(batch);
+        IllegalStateException failed = new IllegalStateException("Booking journal writer has stopped", cause);
+        batch.forEach(append -> append.done.completeExceptionally(failed));
+    }
+
+    private void commit(final List<Append> batch) {
+        long start = journalSize;
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            ByteBuffer[] buffers = batch.stream().map(append -> append.record).toArray(ByteBuffer[]::new);
+            long remaining = batch.stream().mapToLong(append -> append.record.remaining()).sum();
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(false);
+            journalSize = channel.position();
+        } catch (IOException e) {
+            log.error("Could not write {} records to the booking journal", batch.size(), e);
+            rollback(start);
+            batch.forEach(append -> append.done.completeExceptionally(new UncheckedIOException(e)));
+            return;
+        }
+        batchSize.record(batch.size());
+        batch.forEach(append -> {
+            append.apply.run();
+            append.done.complete(null);
+        });
+    }
+
+    private void rollback(final long start) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            channel.truncate(start);
+            channel.position(start);
+        } catch (IOException e) {
+            log.error("Could not roll back the booking journal, rejecting further writes", e);
+            failure = e;
+        }
+    }
+
+    private boolean snapshotDue() {
+        return journalSize >= snapshotBytes || System.nanoTime() - lastSnapshot >= TimeUnit.MILLISECONDS.toNanos(snapshotIntervalMillis);
+    }
+
+    private void snapshot() {
+        lastSnapshot = System.nanoTime();
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out)));
+                for (Booking booking : bookings.values()) {
+                    writeFrame(output, encodePut(booking));
+                }
+                output.flush();
+                out.force(true);
+            }
+            Files.move(temporary, directory.resolve(SNAPSHOT_FILE), ATOMIC_MOVE, REPLACE_EXISTING);
+            try (FileChannel parent = FileChannel.open(directory, READ)) {
+                parent.force(true);
+            }
+            channel.truncate(0);
+            channel.force(true);
+            journalSize = 0;
+            log.debug("Wrote a snapshot of {} bookings", bookings.size());
+        } catch (IOException e) {
+            log.error("Could not write a booking snapshot, the journal keeps growing until the next one", e);
+        }
+    }
+
+    private long replay(final FileChannel in) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(in)));
+        long size = in.size();
+        long end = 0;
+        while (end + HEADER_BYTES <= size) {
+            int length = input.readInt();
+            int checksum = input.readInt();
+            if (length <= 0 || length > size - end - HEADER_BYTES) {
+                break;
+            }
+            byte[] record = new byte[length];
+            input.readFully(record);
+            if (checksum(record) != checksum) {
+                break;
+            }
+            decode(record);
+            end += HEADER_BYTES + length;
+        }
+        return end;
+    }
+
+    private void apply(final Booking booking) {
+        Booking previous = bookings.put(booking.getId(), booking);
+        if (previous != null) {
+            creationOrder.remove(previous);
+        }
+        creationOrder.add(booking);
+    }
+
+    private void unapply(final String id) {
+        Booking previous = bookings.remove(id);
+        if (previous != null) {
+            creationOrder.remove(previous);
+        }
+    }
+
+    private void decode(final byte[] record) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+        byte type = input.readByte();
+        String id = input.readUTF();
+        if (type == DELETE) {
+            unapply(id);
+            return;
+        }
+        long roomId = input.readLong();
+        long checkIn = input.readLong();
+        long checkOut = input.readLong();
+        Instant created = Instant.ofEpochSecond(input.readLong(), input.readInt());
+        apply(Booking.of(id,
+                roomId == NONE ? null : roomId,
+                checkIn == NONE ? null : LocalDate.ofEpochDay(checkIn),
+                checkOut == NONE ? null : LocalDate.ofEpochDay(checkOut),
+                created));
+    }
+
+    private static byte[] encodePut(final Booking booking) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(PUT);
+            output.writeUTF(booking.getId());
+            output.writeLong(booking.getRoomId() == null ? NONE : booking.getRoomId());
+            output.writeLong(booking.getCheckIn() == null ? NONE : booking.getCheckIn().toEpochDay());
+            output.writeLong(booking.getCheckOut() == null ? NONE : booking.getCheckOut().toEpochDay());
+            output.writeLong(booking.getCreated().getEpochSecond());
+            output.writeInt(booking.getCreated().getNano());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeDelete(final String id) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(DELETE);
+            output.writeUTF(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ByteBuffer frames(final List<byte[]> records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            for (byte[] record : records) {
+                writeFrame(output, record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static void writeFrame(final DataOutputStream output, final byte[] record) throws IOException {
+        output.writeInt(record.length);
+        output.writeInt(checksum(record));
+        output.write(record);
+    }
+
+    private static int checksum(final byte[] record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private static final class Append {
+        private final ByteBuffer record;
+        private final Runnable apply;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Append(final ByteBuffer record, final Runnable apply) {
+            this.record = record;
+            this.apply = apply;
+        }
+    }
+}
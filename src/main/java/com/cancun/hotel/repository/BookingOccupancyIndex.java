@@ -0,0 +1,482 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.utils.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Component
+public class BookingOccupancyIndex {
+    private static final Logger log = LoggerFactory.getLogger(BookingOccupancyIndex.class);
+
+    private final BookingWindowSource repository;
+    private final RoomInventory roomInventory;
+    private final DateUtils dateUtils;
+    private final int windowLength;
+    private final boolean shared;
+    private final long staleAfterNanos;
+    private final Map<String, Placement> roomOfBooking = new ConcurrentHashMap<>();
+    private final Map<String, Long> releasedAt = new ConcurrentHashMap<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong refreshesStarted = new AtomicLong();
+    private volatile long lastRefreshStarted;
+    private volatile long lastReadAt = System.nanoTime();
+    private final AtomicLong windowStart;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private volatile Map<Long, AtomicReferenceArray<DayClaim>> rooms = Collections.emptyMap();
+    private volatile Long defaultRoomId;
+
+    @Autowired
+    public BookingOccupancyIndex(
+            @Value("${booking.latest-date-in-days}") final long latestDateInDays,
+            @Value("${booking.cluster.enabled}") final boolean shared,
+            @Value("${booking.cluster.stale-after-ms}") final long staleAfterMillis,
+            final BookingWindowSource repository,
+            final RoomInventory roomInventory,
+            final DateUtils dateUtils
+    ) {
+        this.repository = repository;
+        this.roomInventory = roomInventory;
+        this.dateUtils = dateUtils;
+        this.shared = shared;
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(staleAfterMillis);
+        LocalDate tomorrow = dateUtils.tomorrow();
+        this.windowLength = (int) dateUtils.countDays(tomorrow, dateUtils.countAndReturnDate(tomorrow, latestDateInDays));
+        this.windowStart = new AtomicLong(tomorrow.toEpochDay());
+    }
+
+    @PostConstruct
+    public void load() {
+        loadLock.lock();
+        try {
+            ReplicaRoutingDataSource.onPrimary(this::reload);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public void refresh() {
+        long requested = refreshesStarted.get();
+        loadLock.lock();
+        try {
+            if (lastRefreshStarted > requested) {
+                return;
+            }
+            lastRefreshStarted = refreshesStarted.incrementAndGet();
+            ReplicaRoutingDataSource.onPrimary(this::reconcile);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void reload() {
+        lastReadAt = System.nanoTime();
+        Map<Long, AtomicReferenceArray<DayClaim>> loaded = new LinkedHashMap<>();
+        roomInventory.roomIds().forEach(roomId -> loaded.put(roomId, new AtomicReferenceArray<>(windowLength)));
+        Long defaultRoomId = loaded.keySet().stream().findFirst().orElse(null);
+        this.defaultRoomId = defaultRoomId;
+        roomOfBooking.clear();
+
+        long firstDay = firstDay();
+        long lastDay = lastDay(firstDay);
+        repository.findAllOverlapping(LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(lastDay)).forEach(booking -> {
+            Long roomId = booking.getRoomId() == null ? defaultRoomId : booking.getRoomId();
+            AtomicReferenceArray<DayClaim> days = loaded.get(roomId);
+            if (days == null || booking.getCheckIn() == null || booking.getCheckOut() == null) {
+                log.warn("Booking {} ignored by occupancy index, room {} is unknown or dates are missing", booking.getId(), roomId);
+                return;
+            }
+            long from = Math.max(firstDay, booking.getCheckIn().toEpochDay());
+            long to = Math.min(lastDay, booking.getCheckOut().toEpochDay());
+            for (long day = from; day <= to; day++) {
+                days.set(slotOf(day), new DayClaim(day, booking.getId(), null));
+            }
+            roomOfBooking.put(booking.getId(), new Placement(roomId, null));
+        });
+        rooms = Collections.unmodifiableMap(loaded);
+        version.incrementAndGet();
+        changed();
+        log.info("Occupancy index loaded for {} rooms and {} days starting at {}", loaded.size(), windowLength, LocalDate.ofEpochDay(firstDay));
+    }
+
+    private void reconcile() {
+        lastReadAt = System.nanoTime();
+        long seen = version.get();
+        long firstDay = firstDay();
+        long lastDay = lastDay(firstDay);
+        Map<Long, AtomicReferenceArray<DayClaim>> rooms = this.rooms;
+        Map<Long, String[]> stored = new HashMap<>();
+        Map<String, Long> storedRooms = new HashMap<>();
+        repository.findAllOverlapping(LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(lastDay)).forEach(booking -> {
+            Long roomId = booking.getRoomId() == null ? defaultRoomId : booking.getRoomId();
+            if (!rooms.containsKey(roomId) || booking.getCheckIn() == null || booking.getCheckOut() == null
+                    || isChangedSince(booking.getId(), seen)) {
+                return;
+            }
+            String[] days = stored.computeIfAbsent(roomId, id -> new String[windowLength]);
+            long from = Math.max(firstDay, booking.getCheckIn().toEpochDay());
+            long to = Math.min(lastDay, booking.getCheckOut().toEpochDay());
+            for (long day = from; day <= to; day++) {
+                days[slotOf(day)] = booking.getId();
+            }
+            storedRooms.put(booking.getId(), roomId);
+        });
+
+        boolean changed = false;
+        for (Map.Entry<Long, AtomicReferenceArray<DayClaim>> room : rooms.entrySet()) {
+            AtomicReferenceArray<DayClaim> days = room.getValue();
+            String[] wanted = stored.get(room.getKey());
+            for (long day = firstDay; day <= lastDay; day++) {
+                int slot = slotOf(day);
+                String bookingId = wanted == null ? null : wanted[slot];
+                DayClaim claim = days.get(slot);
+                boolean held = claim != null && claim.day == day;
+                if (held ? claim.bookingId.equals(bookingId) || isChangedSince(claim, seen) : bookingId == null) {
+                    continue;
+                }
+                if (days.compareAndSet(slot, claim, bookingId == null ? null : new DayClaim(day, bookingId, null))) {
+                    changed = true;
+                }
+            }
+        }
+        storedRooms.forEach((bookingId, roomId) -> {
+            Placement placement = roomOfBooking.get(bookingId);
+            if (placement == null || !placement.roomId.equals(roomId)) {
+                roomOfBooking.put(bookingId, new Placement(roomId, null));
+            }
+        });
+        roomOfBooking.entrySet().removeIf(placement -> !storedRooms.containsKey(placement.getKey())
+                && !isChangedSince(placement.getValue().owner, seen));
+        releasedAt.values().removeIf(released -> released <= seen);
+        if (changed) {
+            version.incrementAndGet();
+            changed();
+            log.debug("Occupancy index refreshed from the database");
+        }
+    }
+
+    public void addChangeListener(final Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    public long version() {
+        long firstDay = firstDay();
+        long seen = windowStart.get();
+        if (seen != firstDay && windowStart.compareAndSet(seen, firstDay)) {
+            version.incrementAndGet();
+        }
+        return version.get();
+    }
+
+    public Long defaultRoomId() {
+        return defaultRoomId;
+    }
+
+    public boolean hasRoom(final Long roomId) {
+        return rooms.containsKey(roomId);
+    }
+
+    public Optional<Reservation> reserve(final Booking booking) {
+        Optional<Reservation> reservation = tryReserve(booking);
+        if (reservation.isEmpty() && isStale()) {
+            refresh();
+            return tryReserve(booking);
+        }
+        return reservation;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    public boolean isStale() {
+        return shared && System.nanoTime() - lastReadAt >= staleAfterNanos;
+    }
+
+    public Optional<Reservation> tryReserve(final Booking booking) {
+        for (Long roomId : candidateRooms(booking)) {
+            Reservation reservation = new Reservation(booking, roomId);
+            if (reservation.claimAll()) {
+                return Optional.of(reservation);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void release(final String bookingId) {
+        Placement placement = roomOfBooking.remove(bookingId);
+        if (placement != null) {
+            releaseStale(rooms.get(placement.roomId), bookingId, null);
+            long released = version.incrementAndGet();
+            if (shared) {
+                releasedAt.put(bookingId, released);
+            }
+            changed();
+        }
+    }
+
+    public void forget(final Collection<String> bookingIds) {
+        roomOfBooking.keySet().removeAll(bookingIds);
+    }
+
+    public boolean isAvailable(final Booking booking) {
+        return candidateRooms(booking)
+                .stream()
+                .anyMatch(roomId -> isFree(roomId, booking.getId(), booking.getCheckIn(), booking.getCheckOut()));
+    }
+
+    public List<Long> availableRooms(final LocalDate firstDayInclusive, final LocalDate lastDayInclusive) {
+        return rooms.keySet()
+                .stream()
+                .filter(roomId -> isFree(roomId, null, firstDayInclusive, lastDayInclusive))
+                .collect(Collectors.toList());
+    }
+
+    public Set<LocalDate> bookedDates() {
+        return collect(true);
+    }
+
+    public Set<LocalDate> availableDates() {
+        return collect(false);
+    }
+
+    public int occupiedDays() {
+        long firstDay = firstDay();
+        long lastDay = lastDay(firstDay);
+        int occupied = 0;
+        for (AtomicReferenceArray<DayClaim> days : rooms.values()) {
+            for (int i = 0; i < days.length(); i++) {
+                DayClaim claim = days.get(i);
+                if (claim != null && DateUtils.contains(firstDay, lastDay, claim.day)) {
+                    occupied++;
+                }
+            }
+        }
+        return occupied;
+    }
+
+    private List<Long> candidateRooms(final Booking booking) {
+        if (booking.getRoomId() != null) {
+            return hasRoom(booking.getRoomId()) ? List.of(booking.getRoomId()) : List.of();
+        }
+        List<Long> candidates = new ArrayList<>(rooms.keySet());
+        Placement current = roomOfBooking.get(booking.getId());
+        if (current != null && candidates.remove(current.roomId)) {
+            candidates.add(0, current.roomId);
+        }
+        return candidates;
+    }
+
+    private boolean isFree(final Long roomId, final String bookingId, final LocalDate firstDayInclusive, final LocalDate lastDayInclusive) {
+        AtomicReferenceArray<DayClaim> days = rooms.get(roomId);
+        long firstDay = firstDay();
+        long from = Math.max(firstDay, firstDayInclusive.toEpochDay());
+        long to = Math.min(lastDay(firstDay), lastDayInclusive.toEpochDay());
+        for (long day = from; day <= to; day++) {
+            DayClaim claim = days.get(slotOf(day));
+            if (claim != null && claim.day == day && !claim.bookingId.equals(bookingId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<LocalDate> collect(final boolean booked) {
+        long firstDay = firstDay();
+        Set<LocalDate> dates = new HashSet<>();
+        for (long day = firstDay; day <= lastDay(firstDay); day++) {
+            boolean anyRoomFree = false;
+            for (AtomicReferenceArray<DayClaim> days : rooms.values()) {
+                DayClaim claim = days.get(slotOf(day));
+                if (claim == null || claim.day != day) {
+                    anyRoomFree = true;
+                    break;
+                }
+            }
+            if (anyRoomFree != booked) {
+                dates.add(LocalDate.ofEpochDay(day));
+            }
+        }
+        return dates;
+    }
+
+    private void releaseStale(final AtomicReferenceArray<DayClaim> days, final String bookingId, final Reservation keep) {
+        for (int i = 0; i < days.length(); i++) {
+            DayClaim claim = days.get(i);
+            if (claim != null && claim.bookingId.equals(bookingId) && claim.owner != keep && !isPending(claim.owner)) {
+                days.compareAndSet(i, claim, null);
+            }
+        }
+    }
+
+    private void changed() {
+        changeListeners.forEach(Runnable::run);
+    }
+
+    private long firstDay() {
+        return dateUtils.tomorrow().toEpochDay();
+    }
+
+    private long lastDay(final long firstDay) {
+        return firstDay + windowLength - 1;
+    }
+
+    private int slotOf(final long day) {
+        return (int) Math.floorMod(day, (long) windowLength);
+    }
+
+    private boolean isCurrent(final DayClaim claim) {
+        Placement placement = roomOfBooking.get(claim.bookingId);
+        return placement != null && placement.owner == claim.owner;
+    }
+
+    private static boolean isPending(final Reservation owner) {
+        return owner != null && owner.pending;
+    }
+
+    private boolean isChangedSince(final String bookingId, final long seen) {
+        Long released = releasedAt.get(bookingId);
+        Placement placement = roomOfBooking.get(bookingId);
+        return released != null && released > seen || placement != null && isChangedSince(placement.owner, seen);
+    }
+
+    private static boolean isChangedSince(final DayClaim claim, final long seen) {
+        return isChangedSince(claim.owner, seen);
+    }
+
+    private static boolean isChangedSince(final Reservation owner, final long seen) {
+        return owner != null && (owner.pending || owner.confirmed > seen);
+    }
+
+    private static final class DayClaim {
+        private final long day;
+        private final String bookingId;
+        private final Reservation owner;
+
+        private DayClaim(final long day, final String bookingId, final Reservation owner) {
+            this.day = day;
+            this.bookingId = bookingId;
+            this.owner = owner;
+        }
+    }
+
+    private static final class Placement {
+        private final Long roomId;
+        private final Reservation owner;
+
+        private Placement(final Long roomId, final Reservation owner) {
+            this.roomId = roomId;
+            this.owner = owner;
+        }
+    }
+
+    private static final class Acquired {
+        private final DayClaim claim;
+        private final DayClaim previous;
+
+        private Acquired(final DayClaim claim, final DayClaim previous) {
+            this.claim = claim;
+            this.previous = previous;
+        }
+    }
+
+    public final class Reservation {
+        private final Booking booking;
+        private final Long roomId;
+        private final AtomicReferenceArray<DayClaim> days;
+        private final List<Acquired> acquired = new ArrayList<>();
+        private volatile boolean pending = true;
+        private volatile long confirmed;
+
+        private Reservation(final Booking booking, final Long roomId) {
+            this.booking = booking;
+            this.roomId = roomId;
+            this.days = rooms.get(roomId);
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        private boolean claimAll() {
+            if (booking.getCheckIn() == null || booking.getCheckOut() == null) {
+                return true;
+            }
+            long firstDay = firstDay();
+            long from = Math.max(firstDay, booking.getCheckIn().toEpochDay());
+            long to = Math.min(lastDay(firstDay), booking.getCheckOut().toEpochDay());
+            for (long day = from; day <= to; day++) {
+                if (!claim(day)) {
+                    cancel();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean claim(final long day) {
+            int slot = slotOf(day);
+            DayClaim mine = new DayClaim(day, booking.getId(), this);
+            while (true) {
+                DayClaim current = days.get(slot);
+                boolean held = current != null && current.day == day;
+                if (held && (!current.bookingId.equals(booking.getId()) || isPending(current.owner))) {
+                    return false;
+                }
+                if (days.compareAndSet(slot, current, mine)) {
+                    acquired.add(new Acquired(mine, held ? current : null));
+                    return true;
+                }
+            }
+        }
+
+        public void confirm() {
+            Placement previous = roomOfBooking.put(booking.getId(), new Placement(roomId, this));
+            if (previous != null && !previous.roomId.equals(roomId)) {
+                releaseStale(rooms.get(previous.roomId), booking.getId(), this);
+            }
+            releaseStale(days, booking.getId(), this);
+            confirmed = version.incrementAndGet();
+            pending = false;
+            changed();
+        }
+
+        public void cancel() {
+            pending = false;
+            boolean released = !acquired.isEmpty();
+            acquired.forEach(taken -> {
+                DayClaim restored = taken.previous != null && isCurrent(taken.previous) ? taken.previous : null;
+                days.compareAndSet(slotOf(taken.claim.day), taken.claim, restored);
+            });
+            acquired.clear();
+            if (released) {
+                version.incrementAndGet();
+                changed();
+            }
+        }
+    }
+}
@@ -1,12 +1,32 @@
 package com.cancun.hotel.repository;
 
 import com.cancun.hotel.domain.Booking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface BookingRepository extends CrudRepository<Booking, String> {
+public interface BookingRepository extends CrudRepository<Booking, String>, BookingRepositoryCustom, BookingWindowSource {
     List<Booking> findAll();
+
+    @Query("select b from Booking b order by b.created, b.id")
+    List<Booking> findFirstPage(Pageable pageable);
+
+    @Query("select b from Booking b where b.created > :created or (b.created = :created and b.id > :id) order by b.created, b.id")
+    List<Booking> findPageAfter(@Param("created") Instant created, @Param("id") String id, Pageable pageable);
+
+    @Override
+    @Query("select b from Booking b where b.checkOut >= :from and b.checkIn <= :to")
+    List<Booking> findAllOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select b from Booking b where b.id = :id or ((b.roomId = :roomId or (b.roomId is null and :roomId = :defaultRoomId))" +
+            " and b.checkOut >= :from and b.checkIn <= :to)")
+    List<Booking> findSameOrOverlapping(@Param("id") String id, @Param("roomId") Long roomId, @Param("defaultRoomId") Long defaultRoomId,
+                              @Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,12 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public interface BookingRepositoryCustom {
+    void forEachBooking(Consumer<Booking> action);
+
+    void persistAll(Collection<Booking> bookings);
+}
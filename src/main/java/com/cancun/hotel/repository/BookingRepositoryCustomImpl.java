@@ -0,0 +1,57 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final int fetchSize;
+    private final int batchSize;
+
+    @Autowired
+    public BookingRepositoryCustomImpl(
+            final EntityManager entityManager,
+            @Value("${booking.stream.fetch-size}") final int fetchSize,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") final int batchSize
+    ) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void forEachBooking(final Consumer<Booking> action) {
+        try (Stream<Booking> bookings = entityManager
+                .createQuery("select b from Booking b order by b.created, b.id", Booking.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+            bookings.forEach(booking -> {
+                action.accept(booking);
+                entityManager.detach(booking);
+            });
+        }
+    }
+
+    @Override
+    public void persistAll(final Collection<Booking> bookings) {
+        int pending = 0;
+        for (Booking booking : bookings) {
+            entityManager.persist(booking);
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+    }
+}
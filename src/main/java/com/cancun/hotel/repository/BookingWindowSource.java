@@ -0,0 +1,10 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BookingWindowSource {
+    List<Booking> findAllOverlapping(LocalDate from, LocalDate to);
+}
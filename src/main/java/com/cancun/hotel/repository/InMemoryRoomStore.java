@@ -0,0 +1,33 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Room;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Repository
+@Profile("journal")
+public class InMemoryRoomStore implements RoomStore {
+
+    private final Map<Long, Room> rooms = new ConcurrentSkipListMap<>();
+
+    @Override
+    public long count() {
+        return rooms.size();
+    }
+
+    @Override
+    public <S extends Room> Iterable<S> saveAll(final Iterable<S> saved) {
+        saved.forEach(room -> rooms.put(room.getId(), room));
+        return saved;
+    }
+
+    @Override
+    public List<Room> findAll() {
+        return new ArrayList<>(rooms.values());
+    }
+}
@@ -0,0 +1,150 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Repository
+@Profile("journal")
+public class JournalBookingRepository implements BookingRepository {
+
+    private final BookingJournal journal;
+
+    @Autowired
+    public JournalBookingRepository(final BookingJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public List<Booking> findAll() {
+        return new ArrayList<>(journal.inCreationOrder());
+    }
+
+    @Override
+    public List<Booking> findFirstPage(final Pageable pageable) {
+        return page(journal.inCreationOrder(), pageable);
+    }
+
+    @Override
+    public List<Booking> findPageAfter(final Instant created, final String id, final Pageable pageable) {
+        return page(journal.createdAfter(created, id), pageable);
+    }
+
+    @Override
+    public List<Booking> findAllOverlapping(final LocalDate from, final LocalDate to) {
+        return journal.bookings()
+                .stream()
+                .filter(booking -> overlaps(booking, from, to))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Booking> findSameOrOverlapping(final String id, final Long roomId, final Long defaultRoomId, final LocalDate from, final LocalDate to) {
+        return journal.bookings()
+                .stream()
+                .filter(booking -> booking.getId().equals(id)
+                        || roomId.equals(booking.getRoomId() == null ? defaultRoomId : booking.getRoomId())
+                        && overlaps(booking, from, to))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEachBooking(final Consumer<Booking> action) {
+        journal.inCreationOrder().forEach(action);
+    }
+
+    @Override
+    public void persistAll(final Collection<Booking> bookings) {
+        journal.putAll(bookings);
+    }
+
+    @Override
+    public <S extends Booking> S save(final S booking) {
+        journal.put(booking);
+        return booking;
+    }
+
+    @Override
+    public <S extends Booking> Iterable<S> saveAll(final Iterable<S> bookings) {
+        List<S> list = StreamSupport.stream(bookings.spliterator(), false).collect(Collectors.toList());
+        journal.putAll(list);
+        return list;
+    }
+
+    @Override
+    public Optional<Booking> findById(final String id) {
+        return journal.find(id);
+    }
+
+    @Override
+    public boolean existsById(final String id) {
+        return journal.find(id).isPresent();
+    }
+
+    @Override
+    public Iterable<Booking> findAllById(final Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(journal::find)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long count() {
+        return journal.size();
+    }
+
+    @Override
+    public void deleteById(final String id) {
+        if (journal.find(id).isEmpty()) {
+            throw new EmptyResultDataAccessException(String.format("No %s entity with id %s exists!", Booking.class, id), 1);
+        }
+        journal.remove(id);
+    }
+
+    @Override
+    public void delete(final Booking booking) {
+        if (journal.find(booking.getId()).isPresent()) {
+            journal.remove(booking.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(final Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(final Iterable<? extends Booking> bookings) {
+        bookings.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        findAll().forEach(this::delete);
+    }
+
+    private static boolean overlaps(final Booking booking, final LocalDate from, final LocalDate to) {
+        return booking.getCheckIn() != null && booking.getCheckOut() != null
+                && !booking.getCheckOut().isBefore(from) && !booking.getCheckIn().isAfter(to);
+    }
+
+    private static List<Booking> page(final Collection<Booking> bookings, final Pageable pageable) {
+        return bookings.stream()
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+}
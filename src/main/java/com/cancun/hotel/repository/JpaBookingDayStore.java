@@ -0,0 +1,58 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingDay;
+import com.cancun.hotel.utils.DateUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("!reactive & !journal")
+public class JpaBookingDayStore implements BookingDayStore {
+
+    private final EntityManager entityManager;
+    private final DateUtils dateUtils;
+
+    @Autowired
+    public JpaBookingDayStore(final EntityManager entityManager, final DateUtils dateUtils) {
+        this.entityManager = entityManager;
+        this.dateUtils = dateUtils;
+    }
+
+    @Override
+    public void claim(final Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        Set<BookingDay> wanted = bookings.stream()
+                .flatMap(booking -> dateUtils.streamOf(booking.getCheckIn(), booking.getCheckOut())
+                        .map(night -> BookingDay.of(booking.getRoomId(), night, booking.getId())))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<BookingDay> held = entityManager
+                .createQuery("select d from BookingDay d where d.bookingId in :bookingIds", BookingDay.class)
+                .setParameter("bookingIds", bookings.stream().map(Booking::getId).collect(Collectors.toSet()))
+                .getResultList();
+        for (BookingDay day : held) {
+            if (!wanted.remove(day)) {
+                entityManager.remove(day);
+            }
+        }
+        wanted.forEach(entityManager::persist);
+        entityManager.flush();
+    }
+
+    @Override
+    public void release(final String bookingId) {
+        entityManager.createQuery("delete from BookingDay d where d.bookingId = :bookingId")
+                .setParameter("bookingId", bookingId)
+                .executeUpdate();
+    }
+}
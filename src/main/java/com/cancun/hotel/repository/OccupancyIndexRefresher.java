@@ -0,0 +1,58 @@
+package com.cancun.hotel.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Profile("!journal")
+@ConditionalOnProperty(name = "booking.cluster.enabled", havingValue = "true")
+public class OccupancyIndexRefresher {
+    private static final Logger log = LoggerFactory.getLogger(OccupancyIndexRefresher.class);
+
+    private final BookingOccupancyIndex occupancyIndex;
+    private final long intervalMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "occupancy-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public OccupancyIndexRefresher(
+            final BookingOccupancyIndex occupancyIndex,
+            @Value("${booking.cluster.refresh-interval-ms}") final long intervalMillis
+    ) {
+        this.occupancyIndex = occupancyIndex;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Refreshing the occupancy index from the database every {} ms", intervalMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void refresh() {
+        try {
+            occupancyIndex.refresh();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the occupancy index, keeping the current one", e);
+        }
+    }
+}
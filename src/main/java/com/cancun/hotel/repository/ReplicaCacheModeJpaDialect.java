@@ -0,0 +1,50 @@
+package com.cancun.hotel.repository;
+
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.sql.SQLException;
+
+public class ReplicaCacheModeJpaDialect extends HibernateJpaDialect {
+    private static final String CACHE_STORE_MODE = "javax.persistence.cache.storeMode";
+
+    @Override
+    public Object beginTransaction(final EntityManager entityManager, final TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (ReplicaRoutingDataSource.targetOf(definition.isReadOnly()) != ReplicaRoutingDataSource.Target.REPLICA) {
+            return transactionData;
+        }
+        Object previous = entityManager.getProperties().getOrDefault(CACHE_STORE_MODE, CacheStoreMode.USE);
+        entityManager.setProperty(CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        return new ReplicaTransactionData(transactionData, entityManager, previous);
+    }
+
+    @Override
+    public void cleanupTransaction(final Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData) {
+            ReplicaTransactionData replica = (ReplicaTransactionData) transactionData;
+            if (replica.entityManager.isOpen()) {
+                replica.entityManager.setProperty(CACHE_STORE_MODE, replica.previous);
+            }
+            super.cleanupTransaction(replica.transactionData);
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private static final class ReplicaTransactionData {
+        private final Object transactionData;
+        private final EntityManager entityManager;
+        private final Object previous;
+
+        private ReplicaTransactionData(final Object transactionData, final EntityManager entityManager, final Object previous) {
+            this.transactionData = transactionData;
+            this.entityManager = entityManager;
+            this.previous = previous;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.cancun.hotel.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Boolean> primaryPinned = ThreadLocal.withInitial(() -> false);
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    public ReplicaRoutingDataSource(final DataSource primary, final DataSource replica, final MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryConnections = connections(meterRegistry, Target.PRIMARY);
+        this.replicaConnections = connections(meterRegistry, Target.REPLICA);
+    }
+
+    public static void pinToPrimary(final boolean pinned) {
+        if (pinned) {
+            primaryPinned.set(true);
+        } else {
+            primaryPinned.remove();
+        }
+    }
+
+    public static void onPrimary(final Runnable action) {
+        boolean pinned = primaryPinned.get();
+        primaryPinned.set(true);
+        try {
+            action.run();
+        } finally {
+            pinToPrimary(pinned);
+        }
+    }
+
+    public static Runnable propagatePin(final Runnable task) {
+        boolean pinned = primaryPinned.get();
+        return pinned ? () -> onPrimary(task) : task;
+    }
+
+    public static Target currentTarget() {
+        return targetOf(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    public static Target targetOf(final boolean readOnly) {
+        return readOnly && !primaryPinned.get() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = currentTarget();
+        (target == Target.REPLICA ? replicaConnections : primaryConnections).increment();
+        return target;
+    }
+
+    private static Counter connections(final MeterRegistry meterRegistry, final Target target) {
+        return Counter.builder("booking.datasource.connections")
+                .description("Connections handed out by the read/write routing datasource")
+                .tag("target", target.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
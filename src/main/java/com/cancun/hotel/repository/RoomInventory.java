@@ -0,0 +1,54 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@Component
+public class RoomInventory {
+    private static final Logger log = LoggerFactory.getLogger(RoomInventory.class);
+
+    private final RoomStore repository;
+    private final long roomCount;
+    private volatile List<Long> roomIds = List.of();
+
+    @Autowired
+    public RoomInventory(
+            final RoomStore repository,
+            @Value("${booking.room-count}") final long roomCount
+    ) {
+        this.repository = repository;
+        this.roomCount = roomCount;
+    }
+
+    @PostConstruct
+    public void load() {
+        ReplicaRoutingDataSource.onPrimary(this::loadRooms);
+    }
+
+    private void loadRooms() {
+        if (repository.count() == 0) {
+            repository.saveAll(LongStream.rangeClosed(1, roomCount)
+                    .mapToObj(id -> Room.of(id, String.format("Room %s", id)))
+                    .collect(Collectors.toList()));
+            log.info("Created {} rooms", roomCount);
+        }
+        roomIds = repository.findAll()
+                .stream()
+                .map(Room::getId)
+                .sorted()
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public List<Long> roomIds() {
+        return roomIds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Room;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RoomRepository extends CrudRepository<Room, Long>, RoomStore {
+    @Override
+    List<Room> findAll();
+}
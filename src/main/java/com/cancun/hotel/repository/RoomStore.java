@@ -0,0 +1,13 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Room;
+
+import java.util.List;
+
+public interface RoomStore {
+    long count();
+
+    <S extends Room> Iterable<S> saveAll(Iterable<S> rooms);
+
+    List<Room> findAll();
+}
@@ -0,0 +1,20 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+@Profile("journal")
+public class SingleNodeBookingDayStore implements BookingDayStore {
+
+    @Override
+    public void claim(final Collection<Booking> bookings) {
+    }
+
+    @Override
+    public void release(final String bookingId) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.AvailabilityChange;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Component
+public class AvailabilityFeed {
+
+    private final BookingOccupancyIndex occupancyIndex;
+    private final Sinks.Many<Snapshot> changes = Sinks.many().multicast().directBestEffort();
+    private final Scheduler publisher = Schedulers.newSingle("availability-feed");
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+
+    @Autowired
+    public AvailabilityFeed(final BookingOccupancyIndex occupancyIndex, final MeterRegistry meterRegistry) {
+        this.occupancyIndex = occupancyIndex;
+        occupancyIndex.addChangeListener(this::schedulePublish);
+        Gauge.builder("booking.availability.subscribers", changes, Sinks.Many::currentSubscriberCount)
+                .description("Clients subscribed to the availability stream")
+                .register(meterRegistry);
+    }
+
+    public Flux<ServerSentEvent<BookingResponse<AvailabilityChange>>> subscribe() {
+        return Flux.defer(() -> {
+            AtomicReference<Snapshot> lastSent = new AtomicReference<>();
+            return Flux.merge(changes.asFlux(), Mono.fromSupplier(this::snapshot))
+                    .onBackpressureLatest()
+                    .<ServerSentEvent<BookingResponse<AvailabilityChange>>>handle((snapshot, sink) -> {
+                        Snapshot previous = lastSent.get();
+                        if (previous == null) {
+                            lastSent.set(snapshot);
+                            sink.next(event("snapshot", snapshot.version, AvailabilityChange.snapshot(snapshot.version, format(snapshot.available))));
+                            return;
+                        }
+                        if (snapshot.version <= previous.version) {
+                            return;
+                        }
+                        lastSent.set(snapshot);
+                        List<String> booked = difference(previous.available, snapshot.available);
+                        List<String> free = difference(snapshot.available, previous.available);
+                        if (!booked.isEmpty() || !free.isEmpty()) {
+                            sink.next(event("delta", snapshot.version, AvailabilityChange.delta(snapshot.version, booked, free)));
+                        }
+                    });
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        changes.tryEmitComplete();
+        publisher.dispose();
+    }
+
+    private void schedulePublish() {
+        if (publishScheduled.compareAndSet(false, true)) {
+            publisher.schedule(this::publish);
+        }
+    }
+
+    private void publish() {
+        publishScheduled.set(false);
+        changes.tryEmitNext(snapshot());
+    }
+
+    private Snapshot snapshot() {
+        long version = occupancyIndex.version();
+        return new Snapshot(version, occupancyIndex.availableDates());
+    }
+
+    private static ServerSentEvent<BookingResponse<AvailabilityChange>> event(final String name, final long version, final AvailabilityChange change) {
+        return ServerSentEvent.builder(BookingResponse.of(change))
+                .event(name)
+                .id(String.valueOf(version))
+                .build();
+    }
+
+    private static List<String> difference(final Set<LocalDate> from, final Set<LocalDate> minus) {
+        return from.stream()
+                .filter(day -> !minus.contains(day))
+                .sorted()
+                .map(LocalDate::toString)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> format(final Set<LocalDate> dates) {
+        return dates.stream()
+                .sorted()
+                .map(LocalDate::toString)
+                .collect(Collectors.toList());
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final Set<LocalDate> available;
+
+        private Snapshot(final long version, final Set<LocalDate> available) {
+            this.version = version;
+            this.available = available;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.domain.EncodedJson;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class AvailabilityResponseCache {
+
+    private final ObjectMapper mapper;
+    private final LongSupplier version;
+    private final Supplier<Set<LocalDate>> dates;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Entry entry = new Entry(-1, new EncodedJson<>(new byte[0]));
+
+    public AvailabilityResponseCache(final ObjectMapper mapper, final LongSupplier version, final Supplier<Set<LocalDate>> dates) {
+        this.mapper = mapper;
+        this.version = version;
+        this.dates = dates;
+    }
+
+    public EncodedJson<BookingResponse<Set<String>>> current() {
+        long currentVersion = version.getAsLong();
+        Entry cached = entry;
+        if (cached.version >= currentVersion) {
+            return cached.json;
+        }
+        rebuildLock.lock();
+        try {
+            cached = entry;
+            if (cached.version < currentVersion) {
+                cached = new Entry(currentVersion, encode(dates.get()));
+                entry = cached;
+            }
+            return cached.json;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private EncodedJson<BookingResponse<Set<String>>> encode(final Set<LocalDate> dates) {
+        Set<String> formatted = dates.stream()
+                .map(LocalDate::toString)
+                .collect(Collectors.toCollection(TreeSet::new));
+        try {
+            return new EncodedJson<>(mapper.writeValueAsBytes(BookingResponse.of(formatted)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final EncodedJson<BookingResponse<Set<String>>> json;
+
+        private Entry(final long version, final EncodedJson<BookingResponse<Set<String>>> json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
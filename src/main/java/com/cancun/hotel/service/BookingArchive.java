@@ -0,0 +1,136 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.ArchivedBooking;
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
+import com.cancun.hotel.repository.BookingArchiveRepository;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.repository.ReplicaRoutingDataSource;
+import com.cancun.hotel.utils.DateUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!reactive & !journal")
+public class BookingArchive {
+    private static final Logger log = LoggerFactory.getLogger(BookingArchive.class);
+
+    private final BookingArchiveRepository repository;
+    private final BookingOccupancyIndex occupancyIndex;
+    private final BookingCounts counts;
+    private final DateUtils dateUtils;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final Counter archived;
+    private final Timer batches;
+    private final AtomicLong inArchive = new AtomicLong();
+
+    @Autowired
+    public BookingArchive(
+            final BookingArchiveRepository repository,
+            final BookingOccupancyIndex occupancyIndex,
+            final BookingCounts counts,
+            final DateUtils dateUtils,
+            final PlatformTransactionManager transactionManager,
+            @Value("${booking.archive.batch-size}") final int batchSize,
+            @Value("${booking.archive.batch-pause-ms}") final long batchPauseMillis,
+            final MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.occupancyIndex = occupancyIndex;
+        this.counts = counts;
+        this.dateUtils = dateUtils;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+        this.archived = Counter.builder("booking.archive.moved")
+                .description("Bookings moved to the archive after check-out")
+                .register(meterRegistry);
+        this.batches = Timer.builder("booking.archive.batch")
+                .description("Time spent moving one batch of bookings to the archive")
+                .register(meterRegistry);
+        Gauge.builder("booking.archived", inArchive, AtomicLong::get)
+                .description("Bookings stored in the archive")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void recount() {
+        ReplicaRoutingDataSource.onPrimary(() -> inArchive.set(repository.count()));
+    }
+
+    @Scheduled(initialDelayString = "${booking.archive.interval-ms}", fixedDelayString = "${booking.archive.interval-ms}")
+    public int archiveCheckedOut() {
+        LocalDate today = dateUtils.today();
+        int moved = 0;
+        List<String> batch;
+        do {
+            batch = batches.record(() -> transaction.execute(status -> repository.archiveCheckedOutBefore(today, batchSize, Instant.now())));
+            occupancyIndex.forget(batch);
+            archived.increment(batch.size());
+            inArchive.addAndGet(batch.size());
+            counts.removed(batch.size());
+            moved += batch.size();
+        } while (batch.size() == batchSize && pause());
+        if (moved > 0) {
+            log.info("Archived {} bookings checked out before {}", moved, today);
+        }
+        recount();
+        counts.recount();
+        return moved;
+    }
+
+    @Transactional(readOnly = true)
+    public BookingPage findArchivedBookingPage(final BookingCursor after, final int limit) {
+        PageRequest pageable = PageRequest.of(0, limit + 1);
+        List<Booking> bookings = (after == null ?
+                repository.findFirstPage(pageable) :
+                repository.findPageAfter(after.created, after.id, pageable))
+                .stream()
+                .map(ArchivedBooking::toBooking)
+                .collect(Collectors.toList());
+        if (bookings.size() <= limit) {
+            return new BookingPage(bookings, null);
+        }
+        List<Booking> page = bookings.subList(0, limit);
+        return new BookingPage(page, BookingCursor.of(page.get(limit - 1)).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Booking> findArchivedBookingById(final String id) {
+        return repository.findById(id).map(ArchivedBooking::toBooking);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
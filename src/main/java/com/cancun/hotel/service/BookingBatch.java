@@ -0,0 +1,110 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.utils.DateUtils;
+import com.cancun.hotel.utils.Rejection;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.cancun.hotel.utils.Messages.ALREADY_BOOKED;
+
+public final class BookingBatch {
+
+    private final BookingValidator validator;
+    private final List<BookingResponse<Booking>> results;
+    private final List<Booking> accepted;
+    private final List<BookingOccupancyIndex.Reservation> reservations;
+
+    private BookingBatch(final BookingValidator validator, final int size) {
+        this.validator = validator;
+        this.results = new ArrayList<>(size);
+        this.accepted = new ArrayList<>(size);
+        this.reservations = new ArrayList<>(size);
+    }
+
+    public static BookingBatch reserve(final List<Booking> bookings, final BookingValidator validator, final BookingOccupancyIndex occupancyIndex) {
+        BookingBatch batch = new BookingBatch(validator, bookings.size());
+        for (Booking booking : bookings) {
+            List<String> errors = batch.validate(booking);
+            Optional<BookingOccupancyIndex.Reservation> reservation = errors.isEmpty() ? occupancyIndex.reserve(booking) : Optional.empty();
+            if (reservation.isPresent()) {
+                Booking roomBooking = booking.getRoomId() == null ? booking.inRoom(reservation.get().getRoomId()) : booking;
+                batch.results.add(BookingResponse.of(roomBooking));
+                batch.accepted.add(roomBooking);
+                batch.reservations.add(reservation.get());
+            } else {
+                if (errors.isEmpty()) {
+                    validator.countRejection(Rejection.ALREADY_BOOKED);
+                }
+                batch.results.add(BookingResponse.of(errors.isEmpty() ? List.of(ALREADY_BOOKED) : errors));
+                batch.accepted.add(null);
+                batch.reservations.add(null);
+            }
+        }
+        return batch;
+    }
+
+    public List<Booking> accepted() {
+        return accepted.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    public LocalDate firstCheckIn() {
+        return accepted().stream().map(Booking::getCheckIn).min(Comparator.naturalOrder()).orElseThrow();
+    }
+
+    public LocalDate lastCheckOut() {
+        return accepted().stream().map(Booking::getCheckOut).max(Comparator.naturalOrder()).orElseThrow();
+    }
+
+    public void rejectStoredOverlaps(final List<Booking> stored, final Long defaultRoomId) {
+        for (int i = 0; i < accepted.size(); i++) {
+            Booking booking = accepted.get(i);
+            if (booking != null && stored.stream().anyMatch(existing -> overlaps(existing, booking, defaultRoomId))) {
+                validator.countRejection(Rejection.ALREADY_BOOKED);
+                reservations.get(i).cancel();
+                reservations.set(i, null);
+                accepted.set(i, null);
+                results.set(i, BookingResponse.of(List.of(ALREADY_BOOKED)));
+            }
+        }
+    }
+
+    public List<BookingResponse<Booking>> results() {
+        return results;
+    }
+
+    public void confirm() {
+        reservations.stream().filter(Objects::nonNull).forEach(BookingOccupancyIndex.Reservation::confirm);
+    }
+
+    public void cancel() {
+        reservations.stream().filter(Objects::nonNull).forEach(BookingOccupancyIndex.Reservation::cancel);
+    }
+
+    private List<String> validate(final Booking booking) {
+        try {
+            return validator.validate(booking);
+        } catch (IllegalArgumentException e) {
+            return List.of(e.getMessage());
+        }
+    }
+
+    private static boolean overlaps(final Booking existing, final Booking booking, final Long defaultRoomId) {
+        return !existing.getId().equals(booking.getId())
+                && Objects.equals(roomOf(booking, defaultRoomId), roomOf(existing, defaultRoomId))
+                && DateUtils.overlaps(existing.getCheckIn().toEpochDay(), existing.getCheckOut().toEpochDay(),
+                        booking.getCheckIn().toEpochDay(), booking.getCheckOut().toEpochDay());
+    }
+
+    private static Long roomOf(final Booking booking, final Long defaultRoomId) {
+        return booking.getRoomId() == null ? defaultRoomId : booking.getRoomId();
+    }
+}
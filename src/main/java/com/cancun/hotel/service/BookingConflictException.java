@@ -0,0 +1,8 @@
+package com.cancun.hotel.service;
+
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,44 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.repository.BookingRepository;
+import com.cancun.hotel.repository.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Profile("!reactive")
+public class BookingCounts {
+    private final BookingRepository repository;
+    private final AtomicLong stored = new AtomicLong();
+
+    @Autowired
+    public BookingCounts(final BookingRepository repository, final MeterRegistry meterRegistry) {
+        this.repository = repository;
+        Gauge.builder("booking.stored", stored, AtomicLong::get)
+                .description("Bookings stored in the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void recount() {
+        ReplicaRoutingDataSource.onPrimary(() -> stored.set(repository.count()));
+    }
+
+    public long stored() {
+        return stored.get();
+    }
+
+    void added(final long count) {
+        stored.addAndGet(count);
+    }
+
+    void removed(final long count) {
+        stored.addAndGet(-count);
+    }
+}
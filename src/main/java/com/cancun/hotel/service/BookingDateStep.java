@@ -0,0 +1,29 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.utils.Rejection;
+
+abstract class BookingDateStep implements ValidationStep {
+    private final String dateType;
+
+    BookingDateStep(final String dateType) {
+        this.dateType = dateType;
+    }
+
+    abstract long date(ValidationRequest request);
+
+    @Override
+    public Cost cost() {
+        return Cost.PURE;
+    }
+
+    @Override
+    public void validate(final ValidationRequest request) {
+        long date = date(request);
+        if (date < request.getTomorrow().toEpochDay()) {
+            request.reject(Rejection.TOO_EARLY, dateType, request.getTomorrow());
+        }
+        if (date > request.getLastValidDate().toEpochDay()) {
+            request.reject(Rejection.TOO_LATE, dateType, request.getLastValidDate());
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.cancun.hotel.service;
 
 import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
+import com.cancun.hotel.domain.BookingResponse;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -13,14 +17,24 @@ public interface BookingService {
 
     Booking saveBooking(Booking booking);
 
+    List<BookingResponse<Booking>> saveBookings(List<Booking> bookings);
+
     List<Booking> findAllBookings();
 
+    BookingPage findBookingPage(BookingCursor after, int limit);
+
+    void forEachBooking(Consumer<Booking> action);
+
     Optional<Booking> findBookingById(String id);
 
     Set<LocalDate> findAllBookedDates();
 
     Set<LocalDate> findAllAvailableDates();
 
-    void cancelBooking(String id);
+    List<Long> findAvailableRooms(LocalDate checkIn, LocalDate checkOut);
+
+    long availabilityVersion();
+
+    boolean cancelBooking(String id);
 
 }
@@ -1,155 +1,221 @@
 package com.cancun.hotel.service;
 
 import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.repository.BookingDayStore;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
 import com.cancun.hotel.repository.BookingRepository;
-import com.cancun.hotel.utils.DateUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.cancun.hotel.utils.Rejection;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.util.Assert;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import javax.transaction.Transactional;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import static com.cancun.hotel.utils.Messages.*;
 
 @Service
+@Profile("!reactive")
 public class BookingServiceImpl implements BookingService {
-    private static final Logger log = LoggerFactory.getLogger(BookingServiceImpl.class);
-
-    private final long latestDateInDays;
-    private final long maxBookingPeriodInDays;
     final BookingRepository repository;
-    final DateUtils dateUtils;
+    final BookingDayStore dayStore;
+    final BookingOccupancyIndex occupancyIndex;
+    final BookingValidator validator;
+    private final BookingCounts counts;
 
     @Autowired
     public BookingServiceImpl(
-            @Value("${booking.latest-date-in-days}") final long latestDateInDays,
-            @Value("${booking.max-period-in-days}") final long maxBookingPeriodInDays,
             final BookingRepository repository,
-            final DateUtils dateUtils
+            final BookingDayStore dayStore,
+            final BookingOccupancyIndex occupancyIndex,
+            final BookingValidator validator,
+            final BookingCounts counts,
+            final MeterRegistry meterRegistry
     ) {
-        this.latestDateInDays = latestDateInDays;
-        this.maxBookingPeriodInDays = maxBookingPeriodInDays;
         this.repository = repository;
-        this.dateUtils = dateUtils;
+        this.dayStore = dayStore;
+        this.occupancyIndex = occupancyIndex;
+        this.validator = validator;
+        this.counts = counts;
+        Gauge.builder("booking.window.occupied.days", occupancyIndex, BookingOccupancyIndex::occupiedDays)
+                .description("Room nights taken inside the bookable window")
+                .register(meterRegistry);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Booking> findAllBookings() {
         return repository.findAll();
     }
 
     @Override
-    public Optional<Booking> findBookingById(final String id) {
-        return repository.findById(id);
+    @Transactional(readOnly = true)
+    public BookingPage findBookingPage(final BookingCursor after, final int limit) {
+        PageRequest pageable = PageRequest.of(0, limit + 1);
+        List<Booking> bookings = after == null ?
+                repository.findFirstPage(pageable) :
+                repository.findPageAfter(after.created, after.id, pageable);
+        if (bookings.size() <= limit) {
+            return new BookingPage(bookings, null);
+        }
+        List<Booking> page = bookings.subList(0, limit);
+        return new BookingPage(page, BookingCursor.of(page.get(limit - 1)).encode());
     }
 
     @Override
-    @Transactional
-    public void cancelBooking(final String id) {
-        repository.deleteById(id);
+    @Transactional(readOnly = true)
+    public void forEachBooking(final Consumer<Booking> action) {
+        repository.forEachBooking(action);
     }
 
     @Override
-    public List<String> validateBooking(final Booking booking) {
-        List<String> errors = new ArrayList<>();
-
-        LocalDate checkIn = booking.getCheckIn();
-        LocalDate checkOut = booking.getCheckOut();
-
-        Assert.notNull(checkIn, CHECK_IN_NOT_NULL);
-        Assert.notNull(checkOut, CHECK_OUT_NOT_NULL);
-
-        validateDate("CheckIn", checkIn, errors);
-        validateDate("CheckOut", checkOut, errors);
-        validatePeriod(checkIn, checkOut, errors);
-        validateAvailability(booking, errors);
-
-        if (!errors.isEmpty()) {
-            log.info("Validation errors found for booking {}", booking);
-            errors.forEach(log::info);
-        }
-
-        return errors;
-    }
-
-    private void validatePeriod(LocalDate checkIn, LocalDate checkOut, List<String> errors) {
-        if (checkIn.isEqual(checkOut) || checkIn.isAfter(checkOut)) {
-            errors.add(CHECK_IN_AFTER_CHECK_OUT);
-        }
-        if (dateUtils.countDays(checkIn, checkOut) > maxBookingPeriodInDays) {
-            errors.add(String.format(STAY_TOO_LONG, maxBookingPeriodInDays));
-        }
+    @Transactional(readOnly = true)
+    public Optional<Booking> findBookingById(final String id) {
+        return repository.findById(id);
     }
 
-    private void validateDate(String dateType, LocalDate date, List<String> errors) {
-        final LocalDate tomorrow = dateUtils.tomorrow();
-        if (date.isBefore(tomorrow)) {
-            errors.add(String.format(TOO_EARLY, dateType, tomorrow));
-        }
-
-        LocalDate lastValidDate = dateUtils.countAndReturnDate(tomorrow, latestDateInDays);
-        if (date.isAfter(lastValidDate)) {
-            errors.add(String.format(TOO_LATE, dateType, lastValidDate));
+    @Override
+    @Transactional
+    public boolean cancelBooking(final String id) {
+        Optional<Booking> booking = repository.findById(id);
+        if (booking.isEmpty()) {
+            return false;
         }
-    }
-
-    private void validateAvailability(Booking booking, List<String> errors) {
-        LocalDate checkIn = booking.getCheckIn();
-        LocalDate checkOut = booking.getCheckOut();
-
-        Set<LocalDate> bookedDates = findAllBookedDates();
-
-        Optional<Booking> existentBooking = repository.findById(booking.getId());
-        existentBooking.ifPresent(old -> {
-            Set<LocalDate> ownBookingDates = dateUtils.streamOf(old.getCheckIn(), old.getCheckOut()).collect(Collectors.toSet());
-            bookedDates.removeAll(ownBookingDates);
+        repository.delete(booking.get());
+        dayStore.release(id);
+        afterCompletion(committed -> {
+            if (committed) {
+                occupancyIndex.release(id);
+                counts.removed(1);
+            }
         });
+        return true;
+    }
 
-        Set<LocalDate> unavailableDates = dateUtils.streamOf(checkIn, checkOut)
-                .filter(bookedDates::contains)
-                .collect(Collectors.toSet());
-
-        if (!unavailableDates.isEmpty()) {
-            errors.add(ALREADY_BOOKED);
-        }
+    @Override
+    public List<String> validateBooking(final Booking booking) {
+        return validator.validate(booking);
     }
 
     @Override
     public Set<LocalDate> findAllBookedDates() {
-        LocalDate lowerBoundary = dateUtils.tomorrow();
-        LocalDate higherBoundary = dateUtils.countAndReturnDate(lowerBoundary, latestDateInDays);
-        return repository.findAll()
-                .stream()
-                .flatMap(r -> dateUtils.streamOf(r.getCheckIn(), r.getCheckOut()))
-                .filter(d -> d.isAfter(lowerBoundary) || d.isEqual(lowerBoundary))
-                .filter(d -> d.isBefore(higherBoundary) || d.isEqual(higherBoundary))
-                .collect(Collectors.toSet());
+        return occupancyIndex.bookedDates();
     }
 
     @Override
     public Set<LocalDate> findAllAvailableDates() {
-        LocalDate lowerBoundary = dateUtils.tomorrow();
-        LocalDate higherBoundary = dateUtils.countAndReturnDate(lowerBoundary,latestDateInDays);
+        return occupancyIndex.availableDates();
+    }
 
-        Set<LocalDate> bookedDates = this.findAllBookedDates();
+    @Override
+    public List<Long> findAvailableRooms(final LocalDate checkIn, final LocalDate checkOut) {
+        return occupancyIndex.availableRooms(checkIn, checkOut);
+    }
 
-        return dateUtils.streamOf(lowerBoundary, higherBoundary)
-                .filter(d -> !bookedDates.contains(d))
-                .collect(Collectors.toSet());
+    @Override
+    public long availabilityVersion() {
+        return occupancyIndex.version();
     }
 
     @Override
     @Transactional
     public Booking saveBooking(Booking booking) {
-        return repository.save(booking);
+        BookingOccupancyIndex.Reservation reservation = occupancyIndex.reserve(booking)
+                .orElseThrow(this::conflict);
+        Booking roomBooking = booking.getRoomId() == null ? booking.inRoom(reservation.getRoomId()) : booking;
+        Booking stored = null;
+        Booking saved;
+        try {
+            for (Booking other : repository.findSameOrOverlapping(roomBooking.getId(), roomBooking.getRoomId(),
+                    occupancyIndex.defaultRoomId(), roomBooking.getCheckIn(), roomBooking.getCheckOut())) {
+                if (!other.getId().equals(roomBooking.getId())) {
+                    throw conflict();
+                }
+                stored = other;
+            }
+            saved = repository.save(stored == null ? roomBooking : roomBooking.createdAt(stored.getCreated()));
+            dayStore.claim(List.of(roomBooking));
+        } catch (DataIntegrityViolationException e) {
+            reservation.cancel();
+            throw conflict();
+        } catch (RuntimeException e) {
+            reservation.cancel();
+            throw e;
+        }
+        boolean created = stored == null;
+        afterCompletion(committed -> {
+            if (committed) {
+                reservation.confirm();
+                if (created) {
+                    counts.added(1);
+                }
+            } else {
+                reservation.cancel();
+            }
+        });
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingResponse<Booking>> saveBookings(final List<Booking> bookings) {
+        BookingBatch batch = BookingBatch.reserve(bookings, validator, occupancyIndex);
+        List<Booking> accepted;
+        try {
+            if (!batch.accepted().isEmpty()) {
+                batch.rejectStoredOverlaps(repository.findAllOverlapping(batch.firstCheckIn(), batch.lastCheckOut()), occupancyIndex.defaultRoomId());
+            }
+            accepted = batch.accepted();
+            if (!accepted.isEmpty()) {
+                repository.persistAll(accepted);
+                dayStore.claim(accepted);
+            }
+        } catch (DataIntegrityViolationException e) {
+            batch.cancel();
+            throw conflict();
+        } catch (RuntimeException e) {
+            batch.cancel();
+            throw e;
+        }
+        afterCompletion(committed -> {
+            if (committed) {
+                batch.confirm();
+                counts.added(accepted.size());
+            } else {
+                batch.cancel();
+            }
+        });
+        return batch.results();
+    }
+
+    private BookingConflictException conflict() {
+        validator.countRejection(Rejection.ALREADY_BOOKED);
+        return new BookingConflictException(ALREADY_BOOKED);
+    }
+
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
     }
 }
@@ -0,0 +1,102 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.utils.DateUtils;
+import com.cancun.hotel.utils.Rejection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.cancun.hotel.utils.Messages.*;
+
+@Component
+public class BookingValidator {
+    private static final Logger log = LoggerFactory.getLogger(BookingValidator.class);
+
+    private final long latestDateInDays;
+    private final DateUtils dateUtils;
+    private final MeterRegistry meterRegistry;
+    private final List<Check> checks;
+
+    @Autowired
+    public BookingValidator(
+            @Value("${booking.latest-date-in-days}") final long latestDateInDays,
+            final List<ValidationStep> steps,
+            final DateUtils dateUtils,
+            final MeterRegistry meterRegistry
+    ) {
+        this.latestDateInDays = latestDateInDays;
+        this.dateUtils = dateUtils;
+        this.meterRegistry = meterRegistry;
+        this.checks = steps.stream()
+                .sorted(Comparator.comparing(ValidationStep::cost))
+                .map(this::check)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private Check check(final ValidationStep step) {
+        Timer timer = Timer.builder("booking.validation")
+                .description("Time spent on each booking validation step")
+                .tag("step", step.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Counter skipped = Counter.builder("booking.validation.skipped")
+                .description("Validation steps skipped because a cheaper step already rejected the booking")
+                .tag("step", step.name())
+                .register(meterRegistry);
+        return new Check(step, timer, skipped);
+    }
+
+    public List<String> validate(final Booking booking) {
+        List<String> errors = new ArrayList<>();
+
+        Assert.notNull(booking.getCheckIn(), CHECK_IN_NOT_NULL);
+        Assert.notNull(booking.getCheckOut(), CHECK_OUT_NOT_NULL);
+
+        final LocalDate tomorrow = dateUtils.tomorrow();
+        final ValidationRequest request = new ValidationRequest(
+                booking, tomorrow, dateUtils.countAndReturnDate(tomorrow, latestDateInDays), errors, this::countRejection);
+        for (Check check : checks) {
+            if (check.step.cost() != ValidationStep.Cost.PURE && request.hasErrors()) {
+                check.skipped.increment();
+                continue;
+            }
+            check.timer.record(() -> check.step.validate(request));
+        }
+
+        if (!errors.isEmpty()) {
+            log.info("Validation errors found for booking {}", booking);
+            errors.forEach(log::info);
+        }
+
+        return errors;
+    }
+
+    public void countRejection(Rejection reason) {
+        meterRegistry.counter("booking.rejections", "reason", reason.name()).increment();
+    }
+
+    private static final class Check {
+        private final ValidationStep step;
+        private final Timer timer;
+        private final Counter skipped;
+
+        private Check(final ValidationStep step, final Timer timer, final Counter skipped) {
+            this.step = step;
+            this.timer = timer;
+            this.skipped = skipped;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.cancun.hotel.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(1)
+public class CheckInDateStep extends BookingDateStep {
+
+    public CheckInDateStep() {
+        super("CheckIn");
+    }
+
+    @Override
+    public String name() {
+        return "check-in";
+    }
+
+    @Override
+    long date(final ValidationRequest request) {
+        return request.getCheckIn();
+    }
+}
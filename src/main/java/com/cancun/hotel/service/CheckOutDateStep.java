@@ -0,0 +1,23 @@
+package com.cancun.hotel.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(2)
+public class CheckOutDateStep extends BookingDateStep {
+
+    public CheckOutDateStep() {
+        super("CheckOut");
+    }
+
+    @Override
+    public String name() {
+        return "check-out";
+    }
+
+    @Override
+    long date(final ValidationRequest request) {
+        return request.getCheckOut();
+    }
+}
@@ -0,0 +1,41 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.utils.Rejection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(4)
+public class RoomAvailabilityStep implements ValidationStep {
+    private final BookingOccupancyIndex occupancyIndex;
+
+    @Autowired
+    public RoomAvailabilityStep(final BookingOccupancyIndex occupancyIndex) {
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    @Override
+    public String name() {
+        return "availability";
+    }
+
+    @Override
+    public Cost cost() {
+        return Cost.LOOKUP;
+    }
+
+    @Override
+    public void validate(final ValidationRequest request) {
+        Booking booking = request.getBooking();
+        if (booking.getRoomId() != null && !occupancyIndex.hasRoom(booking.getRoomId())) {
+            request.reject(Rejection.NO_ROOM_FOUND_FOR_GIVEN_ID, booking.getRoomId());
+            return;
+        }
+        if (!occupancyIndex.isShared() && !occupancyIndex.isAvailable(booking)) {
+            request.reject(Rejection.ALREADY_BOOKED);
+        }
+    }
+}
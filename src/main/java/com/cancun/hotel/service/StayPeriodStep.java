@@ -0,0 +1,39 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.utils.DateUtils;
+import com.cancun.hotel.utils.Rejection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(3)
+public class StayPeriodStep implements ValidationStep {
+    private final long maxBookingPeriodInDays;
+
+    @Autowired
+    public StayPeriodStep(@Value("${booking.max-period-in-days}") final long maxBookingPeriodInDays) {
+        this.maxBookingPeriodInDays = maxBookingPeriodInDays;
+    }
+
+    @Override
+    public String name() {
+        return "period";
+    }
+
+    @Override
+    public Cost cost() {
+        return Cost.PURE;
+    }
+
+    @Override
+    public void validate(final ValidationRequest request) {
+        if (request.getCheckIn() >= request.getCheckOut()) {
+            request.reject(Rejection.CHECK_IN_AFTER_CHECK_OUT);
+        }
+        if (DateUtils.countDays(request.getCheckIn(), request.getCheckOut()) > maxBookingPeriodInDays) {
+            request.reject(Rejection.STAY_TOO_LONG, maxBookingPeriodInDays);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.utils.Rejection;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+public final class ValidationRequest {
+    private final Booking booking;
+    private final long checkIn;
+    private final long checkOut;
+    private final LocalDate tomorrow;
+    private final LocalDate lastValidDate;
+    private final List<String> errors;
+    private final Consumer<Rejection> rejections;
+
+    ValidationRequest(
+            final Booking booking,
+            final LocalDate tomorrow,
+            final LocalDate lastValidDate,
+            final List<String> errors,
+            final Consumer<Rejection> rejections
+    ) {
+        this.booking = booking;
+        this.checkIn = booking.getCheckIn().toEpochDay();
+        this.checkOut = booking.getCheckOut().toEpochDay();
+        this.tomorrow = tomorrow;
+        this.lastValidDate = lastValidDate;
+        this.errors = errors;
+        this.rejections = rejections;
+    }
+
+    public Booking getBooking() {
+        return booking;
+    }
+
+    public long getCheckIn() {
+        return checkIn;
+    }
+
+    public long getCheckOut() {
+        return checkOut;
+    }
+
+    public LocalDate getTomorrow() {
+        return tomorrow;
+    }
+
+    public LocalDate getLastValidDate() {
+        return lastValidDate;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    public void reject(final Rejection reason, final Object... args) {
+        rejections.accept(reason);
+        errors.add(reason.message(args));
+    }
+}
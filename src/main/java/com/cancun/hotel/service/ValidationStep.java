@@ -0,0 +1,14 @@
+package com.cancun.hotel.service;
+
+public interface ValidationStep {
+
+    enum Cost {
+        PURE, LOOKUP
+    }
+
+    String name();
+
+    Cost cost();
+
+    void validate(ValidationRequest request);
+}
@@ -5,8 +5,6 @@ import org.springframework.util.Assert;
 import java.time.LocalDate;
 import java.util.stream.Stream;
 
-import static java.time.temporal.ChronoUnit.DAYS;
-
 public interface DateUtils {
     LocalDate today();
     default LocalDate tomorrow(){
@@ -16,8 +14,7 @@ public interface DateUtils {
         return today().minusDays(1);
     }
     default long countDays(LocalDate firstDayInclusive, LocalDate lastDayInclusive){
-        LocalDate lastDayExclusive = lastDayInclusive.plusDays(1);
-        return DAYS.between(firstDayInclusive, lastDayExclusive);
+        return countDays(firstDayInclusive.toEpochDay(), lastDayInclusive.toEpochDay());
     }
     default Stream<LocalDate> streamOf(LocalDate firstDayInclusive, LocalDate lastDayInclusive){
         if(firstDayInclusive == null || lastDayInclusive == null){
@@ -34,4 +31,13 @@ public interface DateUtils {
         long lastPosition = dayCount > 0 ? dayCount-1 : dayCount;
         return initialDate.plusDays(lastPosition);
     }
+    static long countDays(long firstEpochDayInclusive, long lastEpochDayInclusive){
+        return lastEpochDayInclusive - firstEpochDayInclusive + 1;
+    }
+    static boolean contains(long firstEpochDayInclusive, long lastEpochDayInclusive, long epochDay){
+        return epochDay >= firstEpochDayInclusive && epochDay <= lastEpochDayInclusive;
+    }
+    static boolean overlaps(long firstEpochDayInclusive, long lastEpochDayInclusive, long otherFirstEpochDayInclusive, long otherLastEpochDayInclusive){
+        return firstEpochDayInclusive <= otherLastEpochDayInclusive && otherFirstEpochDayInclusive <= lastEpochDayInclusive;
+    }
 }
@@ -9,4 +9,9 @@ public abstract class Messages {
     public static final String TOO_LATE = "%s must be before or at %s";
     public static final String ALREADY_BOOKED = "One or more days of your desired period are already booked";
     public static final String NO_BOOKING_FOUND_FOR_GIVEN_ID = "No booking found with id : %s";
+    public static final String NO_ROOM_FOUND_FOR_GIVEN_ID = "No room found with id : %s";
+    public static final String INVALID_CURSOR = "Invalid cursor : %s";
+    public static final String INVALID_LIMIT = "Limit must be between 1 and %s";
+    public static final String INVALID_BATCH_SIZE = "Batch must have between 1 and %s bookings";
+    public static final String OVERLOADED = "Too many requests in progress, retry after %s seconds";
 }
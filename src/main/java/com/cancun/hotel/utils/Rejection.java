@@ -0,0 +1,20 @@
+package com.cancun.hotel.utils;
+
+public enum Rejection {
+    CHECK_IN_AFTER_CHECK_OUT(Messages.CHECK_IN_AFTER_CHECK_OUT),
+    STAY_TOO_LONG(Messages.STAY_TOO_LONG),
+    TOO_EARLY(Messages.TOO_EARLY),
+    TOO_LATE(Messages.TOO_LATE),
+    ALREADY_BOOKED(Messages.ALREADY_BOOKED),
+    NO_ROOM_FOUND_FOR_GIVEN_ID(Messages.NO_ROOM_FOUND_FOR_GIVEN_ID);
+
+    private final String message;
+
+    Rejection(final String message) {
+        this.message = message;
+    }
+
+    public String message(final Object... args) {
+        return String.format(message, args);
+    }
+}
@@ -0,0 +1,38 @@
+create table if not exists room (
+    id bigint primary key,
+    name varchar(255)
+);
+
+create table if not exists booking (
+    id varchar(255) primary key,
+    room_id bigint,
+    check_in date,
+    check_out date,
+    created timestamp
+);
+
+create index if not exists idx_booking_check_in on booking (check_in);
+create index if not exists idx_booking_check_out on booking (check_out);
+create index if not exists idx_booking_room_dates on booking (room_id, check_in, check_out);
+create index if not exists idx_booking_created on booking (created, id);
+
+create table if not exists booking_day (
+    room_id bigint not null,
+    night date not null,
+    booking_id varchar(255) not null,
+    primary key (room_id, night)
+);
+
+create index if not exists idx_booking_day_booking on booking_day (booking_id);
+
+create table if not exists booking_archive (
+    id varchar(255) primary key,
+    room_id bigint,
+    check_in date,
+    check_out date,
+    created timestamp,
+    archived timestamp
+);
+
+create index if not exists idx_booking_archive_created on booking_archive (created, id);
+create index if not exists idx_booking_archive_check_out on booking_archive (check_out);
@@ -1,13 +1,21 @@
 package com.cancun.hotel;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
 import com.cancun.hotel.controller.BookingController;
 import com.cancun.hotel.service.BookingService;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
-@SpringBootTest
+@AutoConfigureMetrics
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class ApplicationTest {
 
 	@Autowired
@@ -16,10 +24,37 @@ class ApplicationTest {
 	@Autowired
 	BookingService service;
 
+	@Autowired
+	TestRestTemplate restTemplate;
+
 	@Test
 	void contextLoads() {
 		Assertions.assertThat(controller).isNotNull();
 		Assertions.assertThat(service).isNotNull();
 	}
 
+	@Test
+	void prometheusEndpointShouldExposeBookingMetrics() {
+		restTemplate.getForEntity("/api/booking/available", String.class);
+
+		ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(response.getBody())
+				.contains("booking_validation_seconds_bucket")
+				.contains("booking_stored")
+				.contains("booking_window_occupied_days")
+				.contains("spring_data_repository_invocations_seconds_bucket")
+				.contains("http_server_requests_seconds")
+				.contains("hibernate_second_level_cache_requests_total{entityManagerFactory=\"entityManagerFactory\",region=\"booking\"");
+	}
+
+	@Test
+	void logsShouldStayOnConsoleWithoutFileSettings() {
+		Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+
+		Assertions.assertThat(root.getAppender("ASYNC_CONSOLE")).isNotNull();
+		Assertions.assertThat(root.getAppender("ASYNC_FILE")).isNull();
+	}
+
 }
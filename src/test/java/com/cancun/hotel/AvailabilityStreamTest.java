@@ -0,0 +1,70 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.domain.AvailabilityChange;
+import com.cancun.hotel.domain.BookingRequest;
+import com.cancun.hotel.domain.BookingResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class AvailabilityStreamTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<BookingResponse<AvailabilityChange>>> AVAILABILITY_EVENTS = new ParameterizedTypeReference<>() {
+    };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Test
+    public void streamShouldSendSnapshotThenDeltaAfterBooking() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(20);
+        CountDownLatch connected = new CountDownLatch(1);
+
+        CompletableFuture<List<ServerSentEvent<BookingResponse<AvailabilityChange>>>> events = webClientBuilder.baseUrl("http://localhost:" + port)
+                .build()
+                .get()
+                .uri("/api/booking/available/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(AVAILABILITY_EVENTS)
+                .doOnNext(event -> connected.countDown())
+                .take(2)
+                .collectList()
+                .timeout(Duration.ofSeconds(10))
+                .toFuture();
+        assertThat(connected.await(10, TimeUnit.SECONDS)).isTrue();
+
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/booking", new BookingRequest(checkIn, checkIn.plusDays(1)), String.class);
+
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        List<ServerSentEvent<BookingResponse<AvailabilityChange>>> received = events.get(10, TimeUnit.SECONDS);
+        assertThat(received.get(0).event()).isEqualTo("snapshot");
+        assertThat(received.get(0).data().data.available).contains(checkIn.toString(), checkIn.plusDays(1).toString());
+        assertThat(received.get(1).event()).isEqualTo("delta");
+        assertThat(received.get(1).data().data.booked).containsExactly(checkIn.toString(), checkIn.plusDays(1).toString());
+    }
+}
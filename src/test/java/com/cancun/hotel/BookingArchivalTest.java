@@ -0,0 +1,111 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.repository.BookingArchiveRepository;
+import com.cancun.hotel.repository.BookingRepository;
+import com.cancun.hotel.service.BookingArchive;
+import com.cancun.hotel.utils.DateUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "booking.archive.batch-size=7",
+        "booking.archive.batch-pause-ms=0"})
+public class BookingArchivalTest {
+    private static final int CHECKED_OUT = 60;
+
+    @Autowired
+    private BookingArchive archive;
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private BookingArchiveRepository archiveRepository;
+
+    @Autowired
+    private DateUtils dateUtils;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void init() {
+        archiveRepository.deleteAll();
+        LocalDate today = dateUtils.today();
+        List<Booking> checkedOut = new ArrayList<>();
+        for (int i = 0; i < CHECKED_OUT; i++) {
+            LocalDate checkIn = today.minusDays(3 + i % 30);
+            checkedOut.add(Booking.of("checked-out-" + i, 1L + i / 30, checkIn, checkIn.plusDays(1)));
+        }
+        repository.saveAll(checkedOut);
+    }
+
+    @Test
+    public void checkedOutBookingsShouldMoveToHistoryWhileNewBookingsAreSaved() throws Exception {
+        LocalDate tomorrow = dateUtils.tomorrow();
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ResponseEntity<String>>> created = new ArrayList<>();
+            CompletableFuture<Integer> archived = CompletableFuture.supplyAsync(archive::archiveCheckedOut);
+            for (int i = 0; i < 8; i++) {
+                LocalDate checkIn = tomorrow.plusDays(i * 2);
+                created.add(clients.submit(() -> restTemplate.postForEntity("/api/booking", json(checkIn, checkIn.plusDays(1)), String.class)));
+            }
+
+            assertThat(archived.get()).isEqualTo(CHECKED_OUT);
+            for (Future<ResponseEntity<String>> response : created) {
+                assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        assertThat(repository.findAll()).extracting(Booking::getId).noneMatch(id -> id.startsWith("checked-out-")).hasSize(8);
+        assertThat(restTemplate.getForEntity("/api/booking/checked-out-0", String.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(restTemplate.getForEntity("/api/booking/history/checked-out-0", String.class).getBody()).contains("checked-out-0");
+        assertThat(archive.archiveCheckedOut()).isZero();
+        assertThat(meterRegistry.get("booking.archived").gauge().value()).isEqualTo(CHECKED_OUT);
+        assertThat(meterRegistry.get("booking.stored").gauge().value()).isEqualTo(8);
+    }
+
+    @Test
+    public void historyShouldBePagedWithCursor() {
+        archive.archiveCheckedOut();
+
+        ResponseEntity<String> first = restTemplate.getForEntity("/api/booking/history?limit=50", String.class);
+        ResponseEntity<String> invalid = restTemplate.getForEntity("/api/booking/history?limit=0", String.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).contains("\"next\"");
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private static HttpEntity<String> json(final LocalDate checkIn, final LocalDate checkOut) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(String.format("{\"checkIn\":\"%s\",\"checkOut\":\"%s\"}", checkIn, checkOut), headers);
+    }
+}
@@ -0,0 +1,99 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingRequest;
+import com.cancun.hotel.domain.BookingResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookingSecondLevelCacheTest {
+
+    private static final String BASE_URI = "/api/booking";
+    private static final ParameterizedTypeReference<BookingResponse<Booking>> BOOKING_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void init(){
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void getByIdShouldBeServedFromCacheAfterFirstRead(){
+        Booking created = create(LocalDate.now().plusDays(2), LocalDate.now().plusDays(3));
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics("booking");
+        long hits = region.getHitCount();
+
+        get(created.getId());
+        get(created.getId());
+
+        assertThat(region.getHitCount()).isGreaterThan(hits);
+        assertThat(region.getHitCount() + region.getMissCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void getByIdShouldNeverReturnStaleBookingAfterPut(){
+        Booking created = create(LocalDate.now().plusDays(5), LocalDate.now().plusDays(6));
+        get(created.getId());
+
+        ResponseEntity<BookingResponse<Booking>> updated = restTemplate.exchange(
+                RequestEntity.put(URI.create(BASE_URI + "/" + created.getId()))
+                        .body(new BookingRequest(LocalDate.now().plusDays(8), LocalDate.now().plusDays(9))),
+                BOOKING_RESPONSE);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        Booking read = get(created.getId()).getBody().data;
+
+        assertThat(read.getCheckIn()).isEqualTo(LocalDate.now().plusDays(8));
+        assertThat(read.getCheckOut()).isEqualTo(LocalDate.now().plusDays(9));
+        assertThat(statistics.getDomainDataRegionStatistics("booking").getPutCount()).isPositive();
+    }
+
+    @Test
+    public void getByIdShouldReturn404AfterCancel(){
+        Booking created = create(LocalDate.now().plusDays(11), LocalDate.now().plusDays(12));
+        get(created.getId());
+
+        restTemplate.delete(BASE_URI + "/" + created.getId());
+
+        assertThat(get(created.getId()).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private Booking create(LocalDate checkIn, LocalDate checkOut){
+        ResponseEntity<BookingResponse<Booking>> response = restTemplate.exchange(
+                RequestEntity.post(URI.create(BASE_URI)).body(new BookingRequest(checkIn, checkOut)),
+                BOOKING_RESPONSE);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody().data;
+    }
+
+    private ResponseEntity<BookingResponse<Booking>> get(String id){
+        return restTemplate.exchange(BASE_URI + "/" + id, HttpMethod.GET, null, BOOKING_RESPONSE);
+    }
+}
@@ -0,0 +1,136 @@
+package com.cancun.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.cancun.hotel.utils.Messages.ALREADY_BOOKED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MultiNodeBookingTest {
+
+    private static final Pattern BOOKING_ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+    private static final long neverRefresh = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void twoNodesShouldNeverBookSameNightTwice() {
+        try (ConfigurableApplicationContext first = start("multinode", "create", neverRefresh);
+             ConfigurableApplicationContext second = start("multinode", "none", neverRefresh)) {
+            HttpClient client = HttpClient.newHttpClient();
+            List<Integer> ports = List.of(port(first), port(second));
+            LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+            for (int round = 0; round < 12; round++) {
+                LocalDate checkIn = tomorrow.plusDays(round * 2L);
+                List<HttpResponse<String>> responses = ports.stream()
+                        .map(port -> book(client, port, checkIn))
+                        .collect(Collectors.toList())
+                        .stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList());
+
+                assertThat(responses).extracting(HttpResponse::statusCode).containsExactlyInAnyOrder(201, 400);
+                assertThat(responses).filteredOn(response -> response.statusCode() == 400)
+                        .allSatisfy(response -> assertThat(response.body()).contains(ALREADY_BOOKED));
+            }
+        }
+    }
+
+    @Test
+    public void nightsCancelledOnOneNodeShouldBeBookableOnTheOther() {
+        try (ConfigurableApplicationContext first = start("multinode-cancel", "create", neverRefresh);
+             ConfigurableApplicationContext second = start("multinode-cancel", "none", neverRefresh)) {
+            HttpClient client = HttpClient.newHttpClient();
+            LocalDate checkIn = LocalDate.now().plusDays(3);
+
+            HttpResponse<String> booked = book(client, port(first), checkIn).join();
+            HttpResponse<String> taken = book(client, port(second), checkIn).join();
+            cancel(client, port(second), bookingId(booked));
+            HttpResponse<String> rebooked = book(client, port(first), checkIn).join();
+
+            assertThat(booked.statusCode()).isEqualTo(201);
+            assertThat(taken.statusCode()).isEqualTo(400);
+            assertThat(taken.body()).contains(ALREADY_BOOKED);
+            assertThat(rebooked.statusCode()).isEqualTo(201);
+        }
+    }
+
+    @Test
+    public void listingsShouldFollowWritesMadeOnTheOtherNode() throws InterruptedException {
+        try (ConfigurableApplicationContext first = start("multinode-listing", "create", 100);
+             ConfigurableApplicationContext second = start("multinode-listing", "none", 100)) {
+            HttpClient client = HttpClient.newHttpClient();
+            LocalDate checkIn = LocalDate.now().plusDays(5);
+            String night = checkIn.toString();
+
+            String id = bookingId(book(client, port(second), checkIn).join());
+            assertThat(awaitBookedDates(client, port(first), body -> body.contains(night))).contains(night);
+
+            cancel(client, port(second), id);
+            assertThat(awaitBookedDates(client, port(first), body -> !body.contains(night))).doesNotContain(night);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String database, String ddl, long refreshIntervalMillis) {
+        return new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false")
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=" + ddl,
+                        "--booking.cluster.enabled=true",
+                        "--booking.cluster.refresh-interval-ms=" + refreshIntervalMillis);
+    }
+
+    private static String awaitBookedDates(HttpClient client, int port, Predicate<String> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String body = bookedDates(client, port);
+        while (!condition.test(body) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+            body = bookedDates(client, port);
+        }
+        return body;
+    }
+
+    private static String bookedDates(HttpClient client, int port) {
+        return client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/booking/booked")).build(),
+                HttpResponse.BodyHandlers.ofString()).join().body();
+    }
+
+    private static void cancel(HttpClient client, int port, String id) {
+        HttpResponse<String> response = client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/booking/" + id))
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.ofString()).join();
+        assertThat(response.statusCode()).isEqualTo(204);
+    }
+
+    private static String bookingId(HttpResponse<String> response) {
+        Matcher matcher = BOOKING_ID.matcher(response.body());
+        assertThat(matcher.find()).as(response.body()).isTrue();
+        return matcher.group(1);
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static CompletableFuture<HttpResponse<String>> book(HttpClient client, int port, LocalDate checkIn) {
+        String body = String.format("{\"checkIn\":\"%s\",\"checkOut\":\"%s\"}", checkIn, checkIn.plusDays(1));
+        return client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/booking"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,122 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.controller.ReadYourWritesFilter;
+import com.cancun.hotel.domain.BookingRequest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "booking.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.jpa.show-sql=false"})
+public class ReadReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @BeforeAll
+    public static void createReplica() {
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("create table booking (id varchar(255) primary key, room_id bigint, check_in date, check_out date, created timestamp)");
+        LocalDate checkIn = LocalDate.now().plusDays(25);
+        replica.update("insert into booking (id, room_id, check_in, check_out, created) values (?, ?, ?, ?, ?)",
+                "replica-only", 1L, checkIn, checkIn.plusDays(1), Instant.now());
+        replica.update("insert into booking (id, room_id, check_in, check_out, created) values (?, ?, ?, ?, ?)",
+                "lagging", 1L, checkIn.plusDays(2), checkIn.plusDays(3), Instant.now());
+    }
+
+    @Test
+    public void primaryPoolShouldBindHikariSettings() {
+        assertThat(primaryDataSource).isInstanceOf(HikariDataSource.class);
+        assertThat(((HikariDataSource) primaryDataSource).getMaximumPoolSize()).isEqualTo(4);
+    }
+
+    @Test
+    public void readsShouldBeServedByReplica() {
+        assertThat(listBookings(null).getBody()).contains("replica-only");
+    }
+
+    @Test
+    public void clientShouldReadOwnWriteFromPrimaryRightAfterWriting() {
+        LocalDate checkIn = LocalDate.now().plusDays(3);
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/booking", new BookingRequest(checkIn, checkIn.plusDays(1)), String.class);
+        String cookie = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        String id = created.getBody().replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(cookie).startsWith(ReadYourWritesFilter.COOKIE + "=");
+        String ownRead = listBookings(cookie.substring(0, cookie.indexOf(';'))).getBody();
+        assertThat(ownRead).contains(id).doesNotContain("replica-only");
+        assertThat(listBookings(null).getBody()).doesNotContain(id);
+    }
+
+    @Test
+    public void streamShouldReadOwnWriteFromPrimaryRightAfterWriting() {
+        LocalDate checkIn = LocalDate.now().plusDays(6);
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/booking", new BookingRequest(checkIn, checkIn.plusDays(1)), String.class);
+        String cookie = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        String id = created.getBody().replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        String ownStream = get("/api/booking/stream", cookie.substring(0, cookie.indexOf(';'))).getBody();
+
+        assertThat(ownStream).contains(id).doesNotContain("replica-only");
+    }
+
+    @Test
+    public void replicaReadsShouldNotLeaveStaleBookingsInSharedCache() {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        new JdbcTemplate(primaryDataSource).update("insert into booking (id, room_id, check_in, check_out, created) values (?, ?, ?, ?, ?)",
+                "lagging", 1L, checkIn, checkIn.plusDays(1), Instant.now());
+        String pinned = ReadYourWritesFilter.COOKIE + "=" + (System.currentTimeMillis() + 60_000);
+
+        String fromReplica = get("/api/booking/lagging", null).getBody();
+        String fromPrimary = get("/api/booking/lagging", pinned).getBody();
+
+        assertThat(fromReplica).doesNotContain(checkIn.toString());
+        assertThat(fromPrimary).contains(checkIn.toString());
+    }
+
+    @Test
+    public void expiredWriteWindowShouldReadFromReplicaAgain() {
+        String expired = ReadYourWritesFilter.COOKIE + "=" + (System.currentTimeMillis() - 1);
+
+        assertThat(listBookings(expired).getBody()).contains("replica-only");
+    }
+
+    private ResponseEntity<String> listBookings(String cookie) {
+        return get("/api/booking", cookie);
+    }
+
+    private ResponseEntity<String> get(String uri, String cookie) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cookie != null) {
+            headers.add(HttpHeaders.COOKIE, cookie);
+        }
+        return restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
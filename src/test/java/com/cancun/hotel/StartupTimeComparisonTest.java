@@ -0,0 +1,50 @@
+package com.cancun.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupTimeComparisonTest {
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeComparisonTest.class);
+
+    @Test
+    public void fastStartShouldServeFirstRequestAndReportStartupPhases() throws Exception {
+        for (String profile : new String[]{"fast-start", "default"}) {
+            long started = System.nanoTime();
+            SpringApplication application = new SpringApplication(Application.class);
+            application.setApplicationStartup(new BufferingApplicationStartup(10_000));
+            try (ConfigurableApplicationContext context = application.run("--spring.profiles.active=" + profile, "--server.port=0",
+                    "--spring.jpa.show-sql=false")) {
+                long ready = System.nanoTime();
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpResponse<String> response = HttpClient.newHttpClient().send(
+                        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/booking/available")).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                long firstResponse = System.nanoTime();
+
+                assertThat(response.statusCode()).isEqualTo(200);
+                assertThat(context.getBean(StartupReport.class).getReport()).contains("Startup phases:", "Slowest beans");
+                if ("fast-start".equals(profile)) {
+                    assertThat(context.getBeanNamesForType(Docket.class)).isEmpty();
+                }
+                log.info("profile={} ready={} ms time-to-first-request={} ms",
+                        profile,
+                        TimeUnit.NANOSECONDS.toMillis(ready - started),
+                        TimeUnit.NANOSECONDS.toMillis(firstResponse - started));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cancun.hotel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class, VirtualThreadPinningMonitor.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues("booking.virtual-threads.pinned-threshold-ms=5");
+
+    @Test
+    public void virtualThreadsShouldBeOptIn(){
+        runner.run(context -> {
+            assertThat(context).doesNotHaveBean(VirtualThreadConfig.class);
+            assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class);
+        });
+    }
+
+    @Test
+    public void enablingOnOlderJavaShouldFailFast(){
+        assumeFalse(VirtualThreadConfig.isSupported());
+
+        assertThatThrownBy(VirtualThreadConfig::newVirtualThreadPerTaskExecutor)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Java 21");
+        runner.withPropertyValues("booking.virtual-threads.enabled=true")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    public void requestsShouldRunOnVirtualThreadsAndPinningShouldBeCounted(){
+        assumeTrue(VirtualThreadConfig.isSupported());
+
+        runner.withPropertyValues("booking.virtual-threads.enabled=true").run(context -> {
+            ExecutorService executor = context.getBean("virtualThreadExecutor", ExecutorService.class);
+            Method isVirtual = Thread.class.getMethod("isVirtual");
+            Object lock = new Object();
+
+            boolean virtual = executor.submit(() -> (Boolean) isVirtual.invoke(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+            executor.submit(() -> {
+                synchronized (lock) {
+                    TimeUnit.MILLISECONDS.sleep(50);
+                }
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+
+            assertThat(virtual).isTrue();
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (registry.counter("booking.virtual.threads.pinned").count() == 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            assertThat(registry.counter("booking.virtual.threads.pinned").count()).isPositive();
+        });
+    }
+}
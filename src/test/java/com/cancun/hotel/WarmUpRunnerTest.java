@@ -0,0 +1,90 @@
+package com.cancun.hotel;
+
+import com.cancun.hotel.service.BookingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "booking.warm-up.enabled=true",
+        "booking.warm-up.calls-per-round=20",
+        "booking.warm-up.latency-threshold-ms=1000"})
+public class WarmUpRunnerTest {
+
+    @Autowired
+    private WarmUpRunner warmUp;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    public void applicationShouldBeReadyOnlyAfterWarmUpSettled() {
+        ResponseEntity<String> readiness = restTemplate.getForEntity("/actuator/health/readiness", String.class);
+
+        assertThat(warmUp.isSettled()).isTrue();
+        assertThat(warmUp.getDuration()).isPositive();
+        assertThat(warmUp.getSteadyLatency()).isPositive();
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(readiness.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(readiness.getBody()).contains("UP");
+    }
+
+    @Test
+    public void warmUpShouldGiveUpAfterMaxDurationWhenLatencyStaysHigh() throws Exception {
+        BookingService service = Mockito.mock(BookingService.class);
+        when(service.findAllAvailableDates()).thenAnswer(invocation -> {
+            Thread.sleep(2);
+            return Set.of();
+        });
+        @SuppressWarnings("unchecked")
+        ObjectProvider<DataSource> noDataSource = Mockito.mock(ObjectProvider.class);
+        ApplicationEventPublisher publisher = Mockito.mock(ApplicationEventPublisher.class);
+        WarmUpRunner slow = new WarmUpRunner(service, noDataSource, () -> LocalDate.of(2021, 12, 25), publisher, 0, 5, 1, 50, false, new SimpleMeterRegistry());
+
+        slow.run(null);
+        slow.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+
+        assertThat(slow.isSettled()).isFalse();
+        assertThat(slow.getDuration().toMillis()).isGreaterThanOrEqualTo(50);
+        verify(service, atLeast(5)).findBookingById(anyString());
+        verify(publisher).publishEvent(Mockito.<AvailabilityChangeEvent<?>>argThat(event -> event.getState() == ReadinessState.REFUSING_TRAFFIC));
+    }
+
+    @Test
+    public void unsettledWarmUpShouldAcceptTrafficOnlyWhenOptedIn() {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<DataSource> noDataSource = Mockito.mock(ObjectProvider.class);
+        ApplicationEventPublisher publisher = Mockito.mock(ApplicationEventPublisher.class);
+        WarmUpRunner lenient = new WarmUpRunner(Mockito.mock(BookingService.class), noDataSource, () -> LocalDate.of(2021, 12, 25), publisher, 0, 1, 0, 0, true, new SimpleMeterRegistry());
+
+        lenient.run(null);
+        lenient.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+
+        assertThat(lenient.isSettled()).isFalse();
+        verifyNoInteractions(publisher);
+    }
+}
@@ -0,0 +1,185 @@
+package com.cancun.hotel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.cancun.hotel.utils.Messages.OVERLOADED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlFilterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimit readLimit;
+    private AdaptiveConcurrencyLimit writeLimit;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    public void init() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        readLimit = limit("read", 4, 1, 8);
+        writeLimit = limit("write", 1, 1, 1);
+        filter = new AdmissionControlFilter(readLimit, writeLimit, 2, new ObjectMapper());
+    }
+
+    @Test
+    public void requestOverWriteLimitShouldBeRejectedWithRetryAfter() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+
+        filter.doFilter(request("POST"), admitted, new MockFilterChain(new EmptyServlet(), (request, response, chain) ->
+                filter.doFilter(request("POST"), rejected, new MockFilterChain())));
+
+        assertThat(admitted.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(rejected.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains(String.format(OVERLOADED, 2));
+        assertThat(meterRegistry.get("booking.admission.rejected").tag("kind", "write").counter().count()).isEqualTo(1);
+        assertThat(writeLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    public void readsShouldNotUseWriteBudget() throws Exception {
+        MockHttpServletResponse read = new MockHttpServletResponse();
+
+        filter.doFilter(request("POST"), new MockHttpServletResponse(), new MockFilterChain(new EmptyServlet(), (request, response, chain) ->
+                filter.doFilter(request("GET"), read, new MockFilterChain())));
+
+        assertThat(read.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(meterRegistry.get("booking.admission.rejected").tag("kind", "read").counter().count()).isZero();
+    }
+
+    @Test
+    public void streamingRequestsShouldBypassAdmissionControl() throws Exception {
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/api/booking/available/stream");
+        stream.setAsyncSupported(true);
+        MockFilterChain chain = new MockFilterChain(new EmptyServlet(), (request, response, next) -> request.startAsync());
+
+        filter.doFilter(stream, new MockHttpServletResponse(), chain);
+
+        assertThat(stream.isAsyncStarted()).isTrue();
+        assertThat(readLimit.getInFlight()).isZero();
+        assertThat(meterRegistry.get("booking.admission.rejected").tag("kind", "read").counter().count()).isZero();
+        assertThat(readLimit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void limitShouldGrowAdditivelyWhileFastAndBusy() {
+        for (int i = 0; i < 40; i++) {
+            busyRound(readLimit, FAST, false);
+        }
+
+        assertThat(readLimit.getLimit()).isEqualTo(8);
+        assertThat(meterRegistry.get("booking.admission.limit").tag("kind", "read").gauge().value()).isEqualTo(8);
+    }
+
+    @Test
+    public void limitShouldNotGrowWhileMostlyIdle() {
+        for (int i = 0; i < 100; i++) {
+            readLimit.tryAcquire();
+            readLimit.release(FAST, false);
+        }
+
+        assertThat(readLimit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void slowOrFailedRequestsShouldNotShrinkLimitWhileMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = limit("idle", 100, 10, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(i % 2 == 0 ? SLOW : FAST, i % 3 == 0);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    public void limitShouldBackOffOncePerBusyWindowDownToMinimum() {
+        AdaptiveConcurrencyLimit limit = limit("backoff", 20, 10, 100);
+
+        busyRound(limit, FAST, true);
+        assertThat(limit.getLimit()).isEqualTo(18);
+
+        for (int i = 0; i < 20; i++) {
+            busyRound(limit, SLOW, false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void limitShouldShrinkWhenLatencyRisesAboveBaseline() {
+        AdaptiveConcurrencyLimit limit = limit("gradient", 20, 4, 100);
+        long baseline = TimeUnit.MILLISECONDS.toNanos(5);
+
+        busyRound(limit, baseline, false);
+        int atBaseline = limit.getLimit();
+        busyRound(limit, baseline * 4, false);
+
+        assertThat(atBaseline).isEqualTo(21);
+        assertThat(limit.getLimit()).isEqualTo(12);
+    }
+
+    @Test
+    public void concurrentRequestsShouldKeepLimitWithinBounds() throws Exception {
+        AdaptiveConcurrencyLimit limit = limit("concurrent", 16, 4, 64);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    if (limit.tryAcquire()) {
+                        limit.release(i % 10 == 0 ? SLOW : FAST, false);
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(limit.getInFlight()).isZero();
+        assertThat(limit.getLimit()).isBetween(4, 64);
+    }
+
+    private static void busyRound(AdaptiveConcurrencyLimit limit, long latencyNanos, boolean failed) {
+        int admitted = 0;
+        while (admitted < limit.getLimit() && limit.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limit.release(latencyNanos, failed);
+        }
+    }
+
+    private AdaptiveConcurrencyLimit limit(String kind, int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimit(kind, initial, min, max, Duration.ofMillis(100), 0.9, meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/api/booking");
+    }
+
+    private static class EmptyServlet extends HttpServlet {
+    }
+}
@@ -1,12 +1,17 @@
 package com.cancun.hotel.controller;
 
 import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
 import com.cancun.hotel.domain.BookingRequest;
 import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.service.BookingConflictException;
 import com.cancun.hotel.service.BookingService;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,14 +21,22 @@ import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+import static com.cancun.hotel.utils.Messages.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -41,6 +54,12 @@ public class BookingControllerTest {
     private static final ObjectMapper mapper = getObjectMapper();
     private static final String BASE_URI = "/api/booking";
     private static final LocalDate MOCK_DATE = LocalDate.of(2021,12,25);
+    private static final AtomicLong versions = new AtomicLong();
+
+    @BeforeEach
+    public void init(){
+        when(service.availabilityVersion()).thenReturn(versions.incrementAndGet());
+    }
 
     @Test
     public void putShouldReturnStatus201AndBookingBody() throws JsonProcessingException {
@@ -136,6 +155,65 @@ public class BookingControllerTest {
         assertThat(response.getBody().errors).hasSize(2);
     }
 
+    @Test
+    public void postShouldReturnStatus400WhenDatesAreTakenConcurrently() throws JsonProcessingException {
+
+        String json = mapper.writeValueAsString(getBookingRequestMock());
+
+        when(service.validateBooking(any())).thenReturn(Collections.emptyList());
+        when(service.saveBooking(any())).thenThrow(new BookingConflictException(ALREADY_BOOKED));
+
+        ResponseEntity<BookingResponse<Booking>> response = restTemplate.exchange(createPostRequest(BASE_URI, json), new ParameterizedTypeReference<>() {
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().data).isNull();
+        assertThat(response.getBody().errors).containsExactly(ALREADY_BOOKED);
+    }
+
+    @Test
+    public void postBatchShouldReturnStatus201WhenAllBookingsAreCreated() throws JsonProcessingException {
+
+        String json = mapper.writeValueAsString(List.of(getBookingRequestMock(), getBookingRequestMock()));
+
+        when(service.saveBookings(any())).thenReturn(List.of(BookingResponse.of(getBookingMock()), BookingResponse.of(getBookingMock())));
+
+        ResponseEntity<BookingResponse<List<BookingResponse<Booking>>>> response = restTemplate.exchange(createPostRequest(BASE_URI + "/batch", json), new ParameterizedTypeReference<>() {
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().data).hasSize(2).allMatch(result -> result.data != null);
+    }
+
+    @Test
+    public void postBatchShouldReturnStatus200AndPerItemErrorsWhenPartiallyCreated() throws JsonProcessingException {
+
+        String json = mapper.writeValueAsString(List.of(getBookingRequestMock(), getBookingRequestMock()));
+
+        when(service.saveBookings(any())).thenReturn(List.of(BookingResponse.of(getBookingMock()), BookingResponse.of(List.of(ALREADY_BOOKED))));
+
+        ResponseEntity<BookingResponse<List<BookingResponse<Booking>>>> response = restTemplate.exchange(createPostRequest(BASE_URI + "/batch", json), new ParameterizedTypeReference<>() {
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().data.get(0).data).isNotNull();
+        assertThat(response.getBody().data.get(1).errors).containsExactly(ALREADY_BOOKED);
+    }
+
+    @Test
+    public void postBatchShouldReturnStatus400WhenBatchIsEmpty() {
+
+        ResponseEntity<BookingResponse<List<BookingResponse<Booking>>>> response = restTemplate.exchange(createPostRequest(BASE_URI + "/batch", "[]"), new ParameterizedTypeReference<>() {
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().errors).hasSize(1);
+    }
+
     @Test
     public void postShouldReturnStatus400WhenWrongJSON() {
 
@@ -172,6 +250,84 @@ public class BookingControllerTest {
         assertThat(response.getBody().errors).isEmpty();
     }
 
+    @Test
+    public void getPageShouldReturnStatus200AndNextCursor(){
+        Booking last = getBookingMock();
+        String next = BookingCursor.of(last).encode();
+
+        when(service.findBookingPage(any(), eq(2))).thenReturn(new BookingPage(List.of(getBookingMock(), last), next));
+
+        ResponseEntity<BookingResponse<BookingPage>> response = restTemplate.exchange(
+                getEndpoint(BASE_URI + "?limit=2&after=" + next),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                }
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().data.bookings).hasSize(2);
+        assertThat(response.getBody().data.next).isEqualTo(next);
+        assertThat(response.getBody().errors).isEmpty();
+    }
+
+    @Test
+    public void getPageShouldReturnStatus400WhenCursorIsInvalid(){
+        ResponseEntity<BookingResponse<BookingPage>> response = doGet(BASE_URI + "?limit=2&after=invalid");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().errors).containsExactly(String.format(INVALID_CURSOR, "invalid"));
+    }
+
+    @Test
+    public void getPageShouldReturnStatus400WhenLimitIsOutOfRange(){
+        ResponseEntity<BookingResponse<BookingPage>> response = doGet(BASE_URI + "?limit=0");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().errors).containsExactly(String.format(INVALID_LIMIT, BookingPage.MAX_LIMIT));
+    }
+
+    @Test
+    public void streamShouldReturnOneJsonDocumentPerLine(){
+        doAnswer(invocation -> {
+            Consumer<Booking> action = invocation.getArgument(0);
+            action.accept(getBookingMock());
+            action.accept(getBookingMock());
+            return null;
+        }).when(service).forEachBooking(any());
+
+        ResponseEntity<String> response = restTemplate.getForEntity(getEndpoint(BASE_URI + "/stream"), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("application/x-ndjson"));
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().split("\n")).hasSize(2).allMatch(line -> line.startsWith("{") && line.contains("\"checkIn\":\"2021-12-25\""));
+    }
+
+    @Test
+    public void getAvailableRoomsShouldReturnStatus200AndList(){
+        when(service.findAvailableRooms(MOCK_DATE, MOCK_DATE.plusDays(1))).thenReturn(List.of(1L, 2L));
+
+        ResponseEntity<BookingResponse<List<Long>>> response = doGet(BASE_URI + "/rooms/available?checkIn=2021-12-25&checkOut=2021-12-26");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().data).hasSize(2);
+        assertThat(response.getBody().errors).isEmpty();
+    }
+
+    @Test
+    public void getAvailableRoomsShouldReturnStatus400WhenRangeIsInverted(){
+        ResponseEntity<BookingResponse<List<Long>>> response = doGet(BASE_URI + "/rooms/available?checkIn=2021-12-26&checkOut=2021-12-25");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().errors).containsExactly(CHECK_IN_AFTER_CHECK_OUT);
+    }
+
     @Test
     public void getAllBookedDatesShouldReturnStatus200AndList(){
 
@@ -222,6 +378,57 @@ public class BookingControllerTest {
         assertThat(response.getBody().errors).isEmpty();
     }
 
+    @Test
+    public void getAllAvailableDatesShouldReuseEncodedResponseWhileVersionIsUnchanged(){
+        when(service.findAllAvailableDates()).thenReturn(Set.of(LocalDate.now()));
+
+        ResponseEntity<String> first = restTemplate.getForEntity(getEndpoint(BASE_URI + "/available"), String.class);
+        ResponseEntity<String> second = restTemplate.getForEntity(getEndpoint(BASE_URI + "/available"), String.class);
+        when(service.availabilityVersion()).thenReturn(versions.incrementAndGet());
+        when(service.findAllAvailableDates()).thenReturn(Collections.emptySet());
+        ResponseEntity<BookingResponse<Set<String>>> changed = doGet(BASE_URI + "/available");
+
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(first.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(changed.getBody().data).isEmpty();
+        verify(service, times(2)).findAllAvailableDates();
+    }
+
+    @Test
+    public void getAllAvailableDatesShouldReturn304WhenVersionIsUnchanged(){
+        when(service.findAllAvailableDates()).thenReturn(Set.of(LocalDate.now()));
+
+        ResponseEntity<BookingResponse<Set<String>>> first = doGet(BASE_URI + "/available");
+        String eTag = first.getHeaders().getETag();
+        ResponseEntity<String> second = restTemplate.exchange(RequestEntity.get(URI.create(getEndpoint(BASE_URI + "/available")))
+                .ifNoneMatch(first.getHeaders().getETag())
+                .build(), String.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(eTag).isNotBlank();
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(second.getBody()).isNull();
+        verify(service, times(1)).findAllAvailableDates();
+    }
+
+    @Test
+    public void getAllBookedDatesShouldReturn200WhenDatesChanged(){
+        when(service.findAllBookedDates()).thenReturn(Collections.emptySet());
+        String stale = doGet(BASE_URI + "/booked").getHeaders().getETag();
+        when(service.availabilityVersion()).thenReturn(versions.incrementAndGet());
+        when(service.findAllBookedDates()).thenReturn(Set.of(LocalDate.now()));
+
+        ResponseEntity<BookingResponse<Set<String>>> response = restTemplate.exchange(RequestEntity.get(URI.create(getEndpoint(BASE_URI + "/booked")))
+                .ifNoneMatch(stale)
+                .build(), new ParameterizedTypeReference<>() {
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(stale);
+        assertThat(response.getBody().data).hasSize(1);
+    }
+
 
     @Test
     public void getByIdShouldReturnStatus200AndBooking(){
@@ -258,6 +465,7 @@ public class BookingControllerTest {
     @Test
     public void deleteShouldReturnStatus204(){
         final String uri = BASE_URI + "/abc";
+        when(service.cancelBooking("abc")).thenReturn(true);
 
         RequestEntity<?> request = RequestEntity.delete(uri).build();
 
@@ -266,6 +474,37 @@ public class BookingControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    public void deleteShouldReturnStatus404WhenBookingIsUnknown(){
+        final String uri = BASE_URI + "/abc";
+        when(service.cancelBooking("abc")).thenReturn(false);
+
+        RequestEntity<?> request = RequestEntity.delete(uri).build();
+
+        ResponseEntity<BookingResponse<Booking>> response = restTemplate.exchange(request, new ParameterizedTypeReference<>() {
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().errors).containsExactly(String.format(NO_BOOKING_FOUND_FOR_GIVEN_ID, "abc"));
+    }
+
+    @Test
+    public void availabilityListingsShouldDocumentTheirResponseSchema() throws JsonProcessingException {
+        JsonNode docs = mapper.readTree(restTemplate.getForObject("/v2/api-docs", String.class));
+
+        for (String path : List.of(BASE_URI + "/available", BASE_URI + "/booked")) {
+            JsonNode ok = docs.path("paths").path(path).path("get").path("responses").path("200");
+            String model = ok.path("schema").path("$ref").asText().replace("#/definitions/", "");
+            JsonNode data = docs.path("definitions").path(model).path("properties").path("data");
+
+            assertThat(model).startsWith("BookingResponse");
+            assertThat(data.path("type").asText()).isEqualTo("array");
+            assertThat(data.path("items").path("type").asText()).isEqualTo("string");
+            assertThat(docs.path("paths").path(path).path("get").has("parameters")).isFalse();
+        }
+    }
+
     private static Booking getBookingMock(){
         String randomId = String.format("RandomId-%s", Math.random());
         return Booking.of(randomId, MOCK_DATE, MOCK_DATE);
@@ -0,0 +1,120 @@
+package com.cancun.hotel.controller;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class SampledErrorLogTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SampledErrorLogTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Clock clock = Mockito.mock(Clock.class);
+    private SimpleMeterRegistry meterRegistry;
+    private SampledErrorLog errorLog;
+
+    @BeforeEach
+    public void init() {
+        appender.start();
+        logger.addAppender(appender);
+        meterRegistry = new SimpleMeterRegistry();
+        when(clock.millis()).thenReturn(0L);
+        errorLog = new SampledErrorLog(logger, 2, 1_000, clock, meterRegistry);
+    }
+
+    @AfterEach
+    public void detach() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    public void onlyFirstTracesPerIntervalShouldBeLogged() {
+        for (int i = 0; i < 10; i++) {
+            errorLog.error(new IllegalArgumentException("bad " + i));
+        }
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("bad 0", "bad 1");
+        assertThat(appender.list).allSatisfy(event -> assertThat(event.getThrowableProxy()).isNotNull());
+        assertThat(suppressed("IllegalArgumentException")).isEqualTo(8);
+    }
+
+    @Test
+    public void eachExceptionTypeShouldHaveItsOwnBudget() {
+        for (int i = 0; i < 3; i++) {
+            errorLog.error(new IllegalArgumentException("argument"));
+            errorLog.error(new IllegalStateException("state"));
+        }
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("argument", "state", "argument", "state");
+        assertThat(suppressed("IllegalArgumentException")).isEqualTo(1);
+        assertThat(suppressed("IllegalStateException")).isEqualTo(1);
+    }
+
+    @Test
+    public void nextIntervalShouldSummarizeSuppressedAndLogAgain() {
+        for (int i = 0; i < 5; i++) {
+            errorLog.error(new IllegalArgumentException("bad"));
+        }
+        when(clock.millis()).thenReturn(1_000L);
+
+        errorLog.error(new IllegalArgumentException("again"));
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "bad",
+                "bad",
+                "3 more java.lang.IllegalArgumentException suppressed between 1970-01-01T00:00:00Z and 1970-01-01T00:00:01Z",
+                "again");
+    }
+
+    @Test
+    public void flushShouldSummarizeSuppressedWithoutWaitingForNextError() {
+        for (int i = 0; i < 5; i++) {
+            errorLog.error(new IllegalArgumentException("bad"));
+        }
+        errorLog.flush();
+        when(clock.millis()).thenReturn(1_500L);
+
+        errorLog.flush();
+        errorLog.flush();
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "bad",
+                "bad",
+                "3 more java.lang.IllegalArgumentException suppressed between 1970-01-01T00:00:00Z and 1970-01-01T00:00:01.500Z");
+    }
+
+    @Test
+    public void startedLogShouldFlushOnItsOwn() throws Exception {
+        SampledErrorLog scheduled = new SampledErrorLog(logger, 1, 50, Clock.systemUTC(), meterRegistry);
+        scheduled.start();
+        try {
+            scheduled.error(new IllegalStateException("first"));
+            scheduled.error(new IllegalStateException("second"));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (appender.list.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            scheduled.stop();
+        }
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+                .element(1).asString().startsWith("1 more java.lang.IllegalStateException suppressed between");
+    }
+
+    private double suppressed(String exception) {
+        return meterRegistry.get("booking.errors.log.suppressed").tag("exception", exception).counter().count();
+    }
+}
@@ -0,0 +1,44 @@
+package com.cancun.hotel.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamingTimeoutInterceptorTest {
+
+    private final StreamingTimeoutInterceptor interceptor = new StreamingTimeoutInterceptor();
+    private MockHttpServletRequest servletRequest;
+    private StandardServletAsyncWebRequest request;
+
+    @BeforeEach
+    public void init() {
+        servletRequest = new MockHttpServletRequest();
+        servletRequest.setAsyncSupported(true);
+        request = new StandardServletAsyncWebRequest(servletRequest, new MockHttpServletResponse());
+        request.setTimeout(30_000L);
+    }
+
+    @Test
+    public void extendedRequestShouldUseItsOwnTimeout() throws Exception {
+        StreamingTimeoutInterceptor.extend(request, Duration.ofMinutes(10));
+
+        interceptor.beforeConcurrentHandling(request, () -> null);
+        request.startAsync();
+
+        assertThat(servletRequest.getAsyncContext().getTimeout()).isEqualTo(600_000L);
+    }
+
+    @Test
+    public void otherRequestsShouldKeepDefaultTimeout() throws Exception {
+        interceptor.beforeConcurrentHandling(request, () -> null);
+        request.startAsync();
+
+        assertThat(servletRequest.getAsyncContext().getTimeout()).isEqualTo(30_000L);
+    }
+}
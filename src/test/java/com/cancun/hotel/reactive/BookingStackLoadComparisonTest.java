@@ -0,0 +1,104 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.Application;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("load")
+public class BookingStackLoadComparisonTest {
+    private static final Logger log = LoggerFactory.getLogger(BookingStackLoadComparisonTest.class);
+
+    private static final int concurrency = 256;
+    private static final int requestsPerStack = 2_000;
+    private static final int warmUpRequests = 200;
+
+    @Test
+    public void mvcAndReactiveStacksShouldServeSameLoad() throws Exception {
+        for (String profile : new String[]{"default", "reactive"}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .profiles(profile)
+                    .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.com.cancun.hotel.service=WARN")
+                    .run("--booking.admission.enabled=false")) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient client = HttpClient.newHttpClient();
+                seed(client, port);
+
+                run(client, port, warmUpRequests);
+                long started = System.nanoTime();
+                long[] latencies = run(client, port, requestsPerStack);
+                long elapsed = System.nanoTime() - started;
+
+                Arrays.sort(latencies);
+                log.info("stack={} concurrency={} requests={} throughput={} req/s p50={} us p99={} us",
+                        profile, concurrency, requestsPerStack,
+                        requestsPerStack * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed),
+                        TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]),
+                        TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length * 99 / 100]));
+            }
+        }
+    }
+
+    private void seed(HttpClient client, int port) throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 10; i++) {
+            String body = String.format("{\"checkIn\":\"%s\",\"checkOut\":\"%s\"}", checkIn.plusDays(i * 3L), checkIn.plusDays(i * 3L + 1));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri(port, ""))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(201);
+        }
+    }
+
+    private long[] run(HttpClient client, int port, int requests) throws Exception {
+        String[] paths = {"/available", "/booked", "?limit=5", ""};
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            futures.add(executor.submit(() -> {
+                long started = System.nanoTime();
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri(port, paths[request % paths.length])).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                latencies[request] = System.nanoTime() - started;
+                if (response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertThat(failures.get()).isZero();
+        return latencies;
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + "/api/booking" + path);
+    }
+}
@@ -0,0 +1,196 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingPage;
+import com.cancun.hotel.domain.BookingRequest;
+import com.cancun.hotel.domain.BookingResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static com.cancun.hotel.utils.Messages.ALREADY_BOOKED;
+import static com.cancun.hotel.utils.Messages.NO_BOOKING_FOUND_FOR_GIVEN_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReactiveBookingApiTest {
+
+    private static final String BASE_URI = "/api/booking";
+    private static final ParameterizedTypeReference<BookingResponse<Booking>> BOOKING_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<BookingResponse<Set<String>>> DATES_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<BookingResponse<List<Booking>>> BOOKINGS_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<BookingResponse<BookingPage>> PAGE_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<BookingResponse<List<BookingResponse<Booking>>>> BATCH_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    public void createShouldBeReadBackAndBlockDates(){
+        LocalDate checkIn = LocalDate.now().plusDays(2);
+        Booking created = create(new BookingRequest(checkIn, checkIn.plusDays(1)), HttpStatus.CREATED).data;
+
+        Booking read = client.get().uri(BASE_URI + "/" + created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BOOKING_RESPONSE)
+                .returnResult().getResponseBody().data;
+        Set<String> booked = client.get().uri(BASE_URI + "/booked")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(DATES_RESPONSE)
+                .returnResult().getResponseBody().data;
+
+        String eTag = client.get().uri(BASE_URI + "/booked")
+                .exchange()
+                .returnResult(String.class).getResponseHeaders().getETag();
+        client.get().uri(BASE_URI + "/booked")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", eTag);
+
+        assertThat(read.getId()).isEqualTo(created.getId());
+        assertThat(read.getRoomId()).isEqualTo(1L);
+        assertThat(booked).containsExactlyInAnyOrder(checkIn.toString(), checkIn.plusDays(1).toString());
+    }
+
+    @Test
+    public void overlappingCreateShouldBeRejected(){
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        create(new BookingRequest(checkIn, checkIn.plusDays(1)), HttpStatus.CREATED);
+
+        BookingResponse<Booking> response = create(new BookingRequest(checkIn.plusDays(1), checkIn.plusDays(2)), HttpStatus.BAD_REQUEST);
+
+        assertThat(response.data).isNull();
+        assertThat(response.errors).isNotEmpty();
+    }
+
+    @Test
+    public void updateAndDeleteShouldMoveAndFreeDates(){
+        LocalDate checkIn = LocalDate.now().plusDays(8);
+        Booking created = create(new BookingRequest(checkIn, checkIn.plusDays(1)), HttpStatus.CREATED).data;
+
+        Booking updated = client.put().uri(BASE_URI + "/" + created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookingRequest(checkIn.plusDays(3), checkIn.plusDays(4)))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BOOKING_RESPONSE)
+                .returnResult().getResponseBody().data;
+        assertThat(updated.getCreated().toEpochMilli()).isEqualTo(created.getCreated().toEpochMilli());
+        client.delete().uri(BASE_URI + "/" + created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        BookingResponse<Booking> missing = client.get().uri(BASE_URI + "/" + created.getId())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(BOOKING_RESPONSE)
+                .returnResult().getResponseBody();
+        assertThat(missing.errors).containsExactly(String.format(NO_BOOKING_FOUND_FOR_GIVEN_ID, created.getId()));
+        assertThat(client.get().uri(BASE_URI + "/available")
+                .exchange()
+                .expectBody(DATES_RESPONSE)
+                .returnResult().getResponseBody().data).contains(checkIn.plusDays(3).toString());
+    }
+
+    @Test
+    public void deleteShouldReturn404WhenBookingIsUnknown(){
+        BookingResponse<Booking> missing = client.delete().uri(BASE_URI + "/unknown")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(BOOKING_RESPONSE)
+                .returnResult().getResponseBody();
+
+        assertThat(missing.errors).containsExactly(String.format(NO_BOOKING_FOUND_FOR_GIVEN_ID, "unknown"));
+    }
+
+    @Test
+    public void batchShouldReportEachItem(){
+        LocalDate checkIn = LocalDate.now().plusDays(20);
+
+        BookingResponse<List<BookingResponse<Booking>>> response = client.post().uri(BASE_URI + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(
+                        new BookingRequest(checkIn, checkIn.plusDays(1)),
+                        new BookingRequest(checkIn.plusDays(1), checkIn.plusDays(2))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BATCH_RESPONSE)
+                .returnResult().getResponseBody();
+
+        assertThat(response.data).hasSize(2);
+        assertThat(response.data.get(0).data).isNotNull();
+        assertThat(response.data.get(1).errors).containsExactly(ALREADY_BOOKED);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    public void listingsShouldMatchMvcContract(){
+        LocalDate checkIn = LocalDate.now().plusDays(15);
+        create(new BookingRequest(checkIn, checkIn.plusDays(1)), HttpStatus.CREATED);
+        create(new BookingRequest(checkIn.plusDays(3), checkIn.plusDays(4)), HttpStatus.CREATED);
+
+        List<Booking> all = client.get().uri(BASE_URI)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BOOKINGS_RESPONSE)
+                .returnResult().getResponseBody().data;
+        BookingPage first = client.get().uri(BASE_URI + "?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PAGE_RESPONSE)
+                .returnResult().getResponseBody().data;
+        BookingPage second = client.get().uri(BASE_URI + "?limit=1&after=" + first.next)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PAGE_RESPONSE)
+                .returnResult().getResponseBody().data;
+        List<Booking> streamed = client.get().uri(BASE_URI + "/stream")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Booking.class).getResponseBody().collectList().block();
+
+        assertThat(all).hasSize(2);
+        assertThat(first.bookings).hasSize(1);
+        assertThat(second.bookings).hasSize(1);
+        assertThat(second.next).isNull();
+        assertThat(second.bookings.get(0).getId()).isNotEqualTo(first.bookings.get(0).getId());
+        assertThat(streamed).extracting(Booking::getId).containsExactly(first.bookings.get(0).getId(), second.bookings.get(0).getId());
+        client.get().uri(BASE_URI + "?limit=0").exchange().expectStatus().isBadRequest();
+        client.get().uri(BASE_URI + "/rooms/available?checkIn=" + checkIn + "&checkOut=" + checkIn.plusDays(1))
+                .exchange()
+                .expectStatus().isOk();
+        client.get().uri(BASE_URI + "/rooms/available?checkIn=bad&checkOut=" + checkIn)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private BookingResponse<Booking> create(BookingRequest request, HttpStatus status){
+        return client.post().uri(BASE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(status)
+                .expectBody(BOOKING_RESPONSE)
+                .returnResult().getResponseBody();
+    }
+}
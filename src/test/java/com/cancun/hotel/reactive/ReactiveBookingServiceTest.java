@@ -0,0 +1,59 @@
+package com.cancun.hotel.reactive;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.repository.BookingWindowSource;
+import com.cancun.hotel.repository.RoomInventory;
+import com.cancun.hotel.service.BookingConflictException;
+import com.cancun.hotel.service.BookingValidator;
+import com.cancun.hotel.service.CheckInDateStep;
+import com.cancun.hotel.service.CheckOutDateStep;
+import com.cancun.hotel.service.RoomAvailabilityStep;
+import com.cancun.hotel.service.StayPeriodStep;
+import com.cancun.hotel.utils.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+public class ReactiveBookingServiceTest {
+
+    private static final long latestDateInDays = 30;
+    private final DateUtils dateUtils = () -> LocalDate.of(2021, 12, 25);
+
+    @Test
+    public void sharedIndexShouldBeRefreshedOffTheEventLoop(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        List<Boolean> readOnNonBlockingThread = new CopyOnWriteArrayList<>();
+        BookingWindowSource windowSource = (from, to) -> {
+            readOnNonBlockingThread.add(Schedulers.isInNonBlockingThread());
+            return List.of(Booking.of("stored", 1L, tomorrow, tomorrow.plusDays(1)));
+        };
+        RoomInventory roomInventory = Mockito.mock(RoomInventory.class);
+        when(roomInventory.roomIds()).thenReturn(List.of(1L));
+        BookingOccupancyIndex index = new BookingOccupancyIndex(latestDateInDays, true, 0, windowSource, roomInventory, dateUtils);
+        index.load();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReactiveBookingService service = new ReactiveBookingService(
+                Mockito.mock(ReactiveBookingRepository.class),
+                index,
+                new BookingValidator(latestDateInDays, List.of(new CheckInDateStep(), new CheckOutDateStep(), new StayPeriodStep(3), new RoomAvailabilityStep(index)), dateUtils, meterRegistry),
+                Mockito.mock(TransactionalOperator.class),
+                meterRegistry);
+
+        assertThrows(BookingConflictException.class, () -> service.saveBooking(Booking.of("other", tomorrow, tomorrow.plusDays(1)))
+                .subscribeOn(Schedulers.parallel())
+                .block());
+
+        assertThat(readOnNonBlockingThread).containsExactly(false, false);
+    }
+}
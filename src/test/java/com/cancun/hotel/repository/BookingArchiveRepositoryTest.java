@@ -0,0 +1,132 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.ArchivedBooking;
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingDay;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookingArchiveRepositoryTest {
+
+    private static final LocalDate MOCK_DATE = LocalDate.of(2021, 12, 25);
+    private static final Instant ARCHIVED = Instant.parse("2021-12-25T03:00:00Z");
+
+    @Autowired
+    private BookingArchiveRepository archive;
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    public void init(){
+        repository.saveAll(List.of(
+                Booking.of("oldest", 1L, MOCK_DATE.minusDays(10), MOCK_DATE.minusDays(8)),
+                Booking.of("older", 1L, MOCK_DATE.minusDays(6), MOCK_DATE.minusDays(5)),
+                Booking.of("yesterday", 1L, MOCK_DATE.minusDays(2), MOCK_DATE.minusDays(1)),
+                Booking.of("staying", 1L, MOCK_DATE.minusDays(1), MOCK_DATE),
+                Booking.of("future", 1L, MOCK_DATE.plusDays(3), MOCK_DATE.plusDays(4))
+        ));
+        entityManager.persist(BookingDay.of(1L, MOCK_DATE.minusDays(10), "oldest"));
+        entityManager.persist(BookingDay.of(1L, MOCK_DATE, "staying"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void archiveShouldMoveOnlyCheckedOutBookingsOldestFirst(){
+        List<String> first = archive.archiveCheckedOutBefore(MOCK_DATE, 2, ARCHIVED);
+        List<String> second = archive.archiveCheckedOutBefore(MOCK_DATE, 2, ARCHIVED);
+        List<String> third = archive.archiveCheckedOutBefore(MOCK_DATE, 2, ARCHIVED);
+
+        assertThat(first).containsExactly("oldest", "older");
+        assertThat(second).containsExactly("yesterday");
+        assertThat(third).isEmpty();
+        assertThat(repository.findAll()).extracting(Booking::getId).containsExactlyInAnyOrder("staying", "future");
+        assertThat(archive.findAll()).extracting(ArchivedBooking::getId).containsExactlyInAnyOrder("oldest", "older", "yesterday");
+        assertThat(archive.findById("oldest").map(ArchivedBooking::toBooking).map(Booking::getCheckOut)).contains(MOCK_DATE.minusDays(8));
+        assertThat(archive.findById("oldest").map(ArchivedBooking::getArchived)).contains(ARCHIVED);
+    }
+
+    @Test
+    public void archiveShouldReleaseNightsOfArchivedBookings(){
+        archive.archiveCheckedOutBefore(MOCK_DATE, 10, ARCHIVED);
+
+        assertThat(jdbcTemplate.queryForList("select booking_id from booking_day", String.class)).containsExactly("staying");
+    }
+
+    @Test
+    public void archiveShouldReplaceEarlierCopyWhenIdIsArchivedAgain(){
+        archive.archiveCheckedOutBefore(MOCK_DATE, 10, ARCHIVED);
+        repository.save(Booking.of("oldest", 1L, MOCK_DATE.minusDays(4), MOCK_DATE.minusDays(3)));
+        Instant rearchived = ARCHIVED.plusSeconds(60);
+
+        List<String> again = archive.archiveCheckedOutBefore(MOCK_DATE, 10, rearchived);
+
+        assertThat(again).containsExactly("oldest");
+        assertThat(repository.findAll()).extracting(Booking::getId).containsExactlyInAnyOrder("staying", "future");
+        assertThat(archive.findAll()).extracting(ArchivedBooking::getId).containsExactlyInAnyOrder("oldest", "older", "yesterday");
+        assertThat(archive.findById("oldest").map(ArchivedBooking::toBooking).map(Booking::getCheckOut)).contains(MOCK_DATE.minusDays(3));
+        assertThat(archive.findById("oldest").map(ArchivedBooking::getArchived)).contains(rearchived);
+    }
+
+    @Test
+    public void archiveStatementCountShouldNotGrowWithBatchSize(){
+        repository.saveAll(IntStream.range(0, 20)
+                .mapToObj(i -> Booking.of("past-" + i, 1L, MOCK_DATE.minusDays(3), MOCK_DATE.minusDays(2)))
+                .collect(Collectors.toList()));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        archive.archiveCheckedOutBefore(MOCK_DATE, 1, ARCHIVED);
+        long single = statistics.getPrepareStatementCount();
+        statistics.clear();
+        List<String> batch = archive.archiveCheckedOutBefore(MOCK_DATE, 50, ARCHIVED);
+
+        assertThat(batch).hasSize(22);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(22);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(single);
+    }
+
+    @Test
+    public void archivedPagesShouldCoverArchiveInCreationOrder(){
+        archive.archiveCheckedOutBefore(MOCK_DATE, 10, ARCHIVED);
+
+        List<ArchivedBooking> first = archive.findFirstPage(PageRequest.of(0, 2));
+        ArchivedBooking last = first.get(first.size() - 1);
+        Booking cursor = last.toBooking();
+        List<ArchivedBooking> rest = archive.findPageAfter(cursor.getCreated(), cursor.getId(), PageRequest.of(0, 2));
+
+        assertThat(first).hasSize(2);
+        assertThat(rest).hasSize(1);
+        assertThat(List.of(first, rest).stream().flatMap(List::stream).map(ArchivedBooking::getId).collect(Collectors.toSet()))
+                .containsExactlyInAnyOrder("oldest", "older", "yesterday");
+    }
+}
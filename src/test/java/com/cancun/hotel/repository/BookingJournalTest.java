@@ -0,0 +1,203 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+public class BookingJournalTest {
+    private static final long neverSnapshot = Long.MAX_VALUE;
+    private final LocalDate checkIn = LocalDate.of(2021, 12, 26);
+    private final List<BookingJournal> opened = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    public void closeJournals() {
+        opened.forEach(BookingJournal::close);
+    }
+
+    @Test
+    public void shouldRecoverCreatesUpdatesAndCancelsAfterRestart() {
+        BookingJournal journal = open(directory, neverSnapshot);
+        journal.put(booking("a", 0));
+        journal.put(booking("b", 3));
+        journal.put(booking("c", 6));
+        journal.put(booking("b", 9));
+        journal.remove("c");
+        journal.close();
+
+        BookingJournal recovered = open(directory, neverSnapshot);
+
+        assertThat(ids(recovered)).containsExactly("a", "b");
+        assertThat(recovered.find("b").orElseThrow().getCheckIn()).isEqualTo(checkIn.plusDays(9));
+        assertThat(recovered.find("a").orElseThrow().getCreated()).isEqualTo(journal.find("a").orElseThrow().getCreated());
+    }
+
+    @Test
+    public void shouldReplayJournalWhenStoppedWithoutSnapshot() throws IOException {
+        BookingJournal journal = open(directory, neverSnapshot);
+        journal.putAll(List.of(booking("a", 0), booking("b", 3)));
+        journal.remove("a");
+        journal.put(booking("c", 6));
+
+        BookingJournal recovered = open(crash(directory, 0), neverSnapshot);
+
+        assertThat(ids(recovered)).containsExactly("b", "c");
+    }
+
+    @Test
+    public void shouldDropTruncatedTailRecordOnRecovery() throws IOException {
+        BookingJournal journal = open(directory, neverSnapshot);
+        journal.put(booking("a", 0));
+        journal.put(booking("b", 3));
+
+        Path crashed = crash(directory, 5);
+        BookingJournal recovered = open(crashed, neverSnapshot);
+        recovered.put(booking("c", 6));
+
+        assertThat(ids(recovered)).containsExactly("a", "c");
+        assertThat(ids(open(crash(crashed, 0), neverSnapshot))).containsExactly("a", "c");
+    }
+
+    @Test
+    public void shouldDropTailRecordWithBadChecksumOnRecovery() throws IOException {
+        BookingJournal journal = open(directory, neverSnapshot);
+        journal.put(booking("a", 0));
+        journal.put(booking("b", 3));
+
+        Path crashed = crash(directory, 0);
+        Path file = crashed.resolve("bookings.journal");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        assertThat(ids(open(crashed, neverSnapshot))).containsExactly("a");
+    }
+
+    @Test
+    public void shouldSnapshotAndTruncateJournalOnceItGrowsPastLimit() throws IOException {
+        BookingJournal journal = open(directory, 1, neverSnapshot);
+        journal.put(booking("a", 0));
+        journal.put(booking("b", 3));
+        journal.remove("a");
+        journal.close();
+
+        assertThat(Files.size(directory.resolve("bookings.journal"))).isZero();
+        assertThat(Files.exists(directory.resolve("bookings.snapshot"))).isTrue();
+        assertThat(ids(open(directory, neverSnapshot))).containsExactly("b");
+    }
+
+    @Test
+    public void shouldReplayJournalOnTopOfSnapshot() throws IOException {
+        BookingJournal journal = open(directory, neverSnapshot);
+        journal.put(booking("a", 0));
+        journal.close();
+        journal = open(directory, neverSnapshot);
+        journal.put(booking("b", 3));
+        journal.remove("a");
+
+        assertThat(ids(open(crash(directory, 0), neverSnapshot))).containsExactly("b");
+    }
+
+    @Test
+    public void concurrentWritersShouldAllBeDurable() throws Exception {
+        BookingJournal journal = open(directory, neverSnapshot);
+        int threads = 16;
+        int writesPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < writesPerThread; i++) {
+                    journal.put(Booking.of(UUID.randomUUID().toString(), 1L, checkIn, checkIn.plusDays(1)));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(open(crash(directory, 0), neverSnapshot).size()).isEqualTo(threads * writesPerThread);
+    }
+
+    @Test
+    public void shouldRejectWritesOnceClosed() {
+        BookingJournal journal = open(directory, neverSnapshot);
+        journal.close();
+
+        assertThatThrownBy(() -> journal.put(booking("a", 0))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void writesShouldFailFastOnceTheWriterStops() {
+        BookingJournal journal = open(directory, neverSnapshot);
+        Booking poisoned = spy(booking("a", 0));
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("booking-journal")) {
+                throw new IllegalArgumentException("poisoned");
+            }
+            return invocation.callRealMethod();
+        }).when(poisoned).getCreated();
+
+        assertThatThrownBy(() -> journal.put(poisoned))
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("poisoned");
+        assertThatThrownBy(() -> journal.put(booking("b", 3)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("writer has stopped");
+    }
+
+    private BookingJournal open(final Path path, final long snapshotBytes) {
+        return open(path, snapshotBytes, 60_000);
+    }
+
+    private BookingJournal open(final Path path, final long snapshotBytes, final long snapshotIntervalMillis) {
+        BookingJournal journal = new BookingJournal(path.toString(), snapshotIntervalMillis, snapshotBytes, new SimpleMeterRegistry());
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    private Path crash(final Path source, final int lostBytes) throws IOException {
+        Path target = Files.createTempDirectory(directory, "crash");
+        for (String name : new String[]{"bookings.journal", "bookings.snapshot"}) {
+            if (Files.exists(source.resolve(name))) {
+                byte[] bytes = Files.readAllBytes(source.resolve(name));
+                Files.write(target.resolve(name), Arrays.copyOf(bytes, bytes.length - (name.endsWith("journal") ? lostBytes : 0)));
+            }
+        }
+        return target;
+    }
+
+    private Booking booking(final String id, final int offset) {
+        return Booking.of(id, 1L, checkIn.plusDays(offset), checkIn.plusDays(offset + 1), Instant.now());
+    }
+
+    private static List<String> ids(final BookingJournal journal) {
+        return journal.bookings().stream().map(Booking::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,327 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.utils.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class BookingOccupancyIndexTest {
+
+    private static final long latestDateInDays = 10;
+    private final AtomicReference<LocalDate> today = new AtomicReference<>(LocalDate.of(2021, 12, 25));
+    private final DateUtils dateUtils = today::get;
+    private BookingRepository repository;
+    private RoomInventory roomInventory;
+    private BookingOccupancyIndex index;
+
+    @BeforeEach
+    public void init(){
+        repository = Mockito.mock(BookingRepository.class);
+        roomInventory = Mockito.mock(RoomInventory.class);
+        when(roomInventory.roomIds()).thenReturn(List.of(1L));
+        index = new BookingOccupancyIndex(latestDateInDays, false, 0, repository, roomInventory, dateUtils);
+        index.load();
+        Mockito.clearInvocations(repository);
+    }
+
+    @Test
+    public void loadShouldReadRepositoryOnce(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        LocalDate lastDay = tomorrow.plusDays(latestDateInDays - 1);
+        when(repository.findAllOverlapping(tomorrow, lastDay)).thenReturn(List.of(Booking.of("R1", tomorrow, tomorrow.plusDays(1))));
+
+        index.load();
+        index.bookedDates();
+        index.availableDates();
+        index.isAvailable(Booking.of("other", tomorrow, tomorrow));
+
+        verify(repository, times(1)).findAllOverlapping(tomorrow, lastDay);
+        verify(repository, never()).findAll();
+        assertThat(index.bookedDates()).containsExactlyInAnyOrder(tomorrow, tomorrow.plusDays(1));
+        assertThat(index.availableDates()).hasSize((int) latestDateInDays - 2);
+    }
+
+    @Test
+    public void loadShouldIgnoreDatesOutsideWindow(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        when(repository.findAllOverlapping(any(), any())).thenReturn(List.of(
+                Booking.of("past", tomorrow.minusDays(3), tomorrow),
+                Booking.of("future", tomorrow.plusDays(latestDateInDays - 1), tomorrow.plusDays(latestDateInDays + 2))
+        ));
+
+        index.load();
+
+        assertThat(index.bookedDates()).containsExactlyInAnyOrder(tomorrow, tomorrow.plusDays(latestDateInDays - 1));
+    }
+
+    @Test
+    public void confirmShouldReplacePreviousDatesOfSameBooking(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1))).orElseThrow().confirm();
+
+        index.reserve(Booking.of("R1", tomorrow.plusDays(4), tomorrow.plusDays(5))).orElseThrow().confirm();
+
+        assertThat(index.bookedDates()).containsExactlyInAnyOrder(tomorrow.plusDays(4), tomorrow.plusDays(5));
+        assertThat(index.isAvailable(Booking.of("R2", tomorrow, tomorrow.plusDays(1)))).isTrue();
+        assertThat(index.isAvailable(Booking.of("R2", tomorrow.plusDays(5), tomorrow.plusDays(6)))).isFalse();
+        assertThat(index.isAvailable(Booking.of("R1", tomorrow.plusDays(5), tomorrow.plusDays(6)))).isTrue();
+    }
+
+    @Test
+    public void reserveShouldFailWithoutClaimingAnyDayWhenOneDayIsTaken(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", tomorrow.plusDays(2), tomorrow.plusDays(2))).orElseThrow().confirm();
+
+        Optional<BookingOccupancyIndex.Reservation> reservation = index.reserve(Booking.of("R2", tomorrow, tomorrow.plusDays(2)));
+
+        assertThat(reservation).isEmpty();
+        assertThat(index.bookedDates()).containsExactly(tomorrow.plusDays(2));
+    }
+
+    @Test
+    public void cancelShouldKeepPreviousDatesOfSameBooking(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1))).orElseThrow().confirm();
+
+        index.reserve(Booking.of("R1", tomorrow.plusDays(1), tomorrow.plusDays(2))).orElseThrow().cancel();
+
+        assertThat(index.bookedDates()).containsExactlyInAnyOrder(tomorrow, tomorrow.plusDays(1));
+    }
+
+    @Test
+    public void concurrentUpdatesOfSameBookingShouldNotReleaseEachOthersNights(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1))).orElseThrow().confirm();
+        BookingOccupancyIndex.Reservation first = index.reserve(Booking.of("R1", tomorrow.plusDays(3), tomorrow.plusDays(4))).orElseThrow();
+        BookingOccupancyIndex.Reservation second = index.reserve(Booking.of("R1", tomorrow.plusDays(6), tomorrow.plusDays(7))).orElseThrow();
+
+        first.confirm();
+
+        assertThat(index.bookedDates()).containsExactlyInAnyOrder(
+                tomorrow.plusDays(3), tomorrow.plusDays(4), tomorrow.plusDays(6), tomorrow.plusDays(7));
+
+        second.confirm();
+
+        assertThat(index.bookedDates()).containsExactlyInAnyOrder(tomorrow.plusDays(6), tomorrow.plusDays(7));
+    }
+
+    @Test
+    public void updateRacingReleaseShouldKeepItsOwnNights(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1))).orElseThrow().confirm();
+        BookingOccupancyIndex.Reservation update = index.reserve(Booking.of("R1", tomorrow.plusDays(3), tomorrow.plusDays(4))).orElseThrow();
+
+        index.release("R1");
+
+        assertThat(index.bookedDates()).containsExactlyInAnyOrder(tomorrow.plusDays(3), tomorrow.plusDays(4));
+
+        update.confirm();
+
+        assertThat(index.bookedDates()).containsExactlyInAnyOrder(tomorrow.plusDays(3), tomorrow.plusDays(4));
+    }
+
+    @Test
+    public void cancelShouldNotRestoreNightsSupersededByAnotherUpdate(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1))).orElseThrow().confirm();
+        BookingOccupancyIndex.Reservation overlapping = index.reserve(Booking.of("R1", tomorrow.plusDays(1), tomorrow.plusDays(2))).orElseThrow();
+        BookingOccupancyIndex.Reservation moved = index.reserve(Booking.of("R1", tomorrow.plusDays(5), tomorrow.plusDays(5))).orElseThrow();
+
+        assertThat(index.reserve(Booking.of("R1", tomorrow.plusDays(2), tomorrow.plusDays(3)))).isEmpty();
+
+        moved.confirm();
+        overlapping.cancel();
+
+        assertThat(index.bookedDates()).containsExactly(tomorrow.plusDays(5));
+    }
+
+    @Test
+    public void roomsShouldBePartitioned(){
+        when(roomInventory.roomIds()).thenReturn(List.of(1L, 2L));
+        index.load();
+        LocalDate tomorrow = dateUtils.tomorrow();
+
+        BookingOccupancyIndex.Reservation first = index.reserve(Booking.of("R1", 1L, tomorrow, tomorrow.plusDays(1))).orElseThrow();
+        first.confirm();
+        BookingOccupancyIndex.Reservation any = index.reserve(Booking.of("R2", tomorrow, tomorrow)).orElseThrow();
+        any.confirm();
+
+        assertThat(any.getRoomId()).isEqualTo(2L);
+        assertThat(index.reserve(Booking.of("R3", 1L, tomorrow.plusDays(1), tomorrow.plusDays(1)))).isEmpty();
+        assertThat(index.availableRooms(tomorrow.plusDays(1), tomorrow.plusDays(2))).containsExactly(2L);
+        assertThat(index.bookedDates()).containsExactly(tomorrow);
+    }
+
+    @Test
+    public void updateWithoutRoomShouldPreferCurrentRoomAndReleaseOldOne(){
+        when(roomInventory.roomIds()).thenReturn(List.of(1L, 2L));
+        index.load();
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", 2L, tomorrow, tomorrow)).orElseThrow().confirm();
+
+        BookingOccupancyIndex.Reservation update = index.reserve(Booking.of("R1", tomorrow.plusDays(1), tomorrow.plusDays(1))).orElseThrow();
+        update.confirm();
+        index.reserve(Booking.of("R1", 1L, tomorrow.plusDays(1), tomorrow.plusDays(1))).orElseThrow().confirm();
+
+        assertThat(update.getRoomId()).isEqualTo(2L);
+        assertThat(index.availableRooms(tomorrow, tomorrow.plusDays(1))).containsExactly(2L);
+    }
+
+    @Test
+    public void releaseShouldFreeDates(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(2))).orElseThrow().confirm();
+
+        index.release("R1");
+
+        assertThat(index.bookedDates()).isEmpty();
+        assertThat(index.availableDates()).hasSize((int) latestDateInDays);
+    }
+
+    @Test
+    public void versionShouldChangeOnlyWhenOccupancyChanges(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        long initial = index.version();
+
+        index.bookedDates();
+        index.availableDates();
+        index.isAvailable(Booking.of("R1", tomorrow, tomorrow));
+        assertThat(index.version()).isEqualTo(initial);
+
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1))).orElseThrow().confirm();
+        long afterConfirm = index.version();
+        index.reserve(Booking.of("R2", tomorrow.plusDays(3), tomorrow.plusDays(3))).orElseThrow().cancel();
+        long afterCancel = index.version();
+        index.release("R1");
+        long afterRelease = index.version();
+
+        assertThat(afterConfirm).isGreaterThan(initial);
+        assertThat(afterCancel).isGreaterThan(afterConfirm);
+        assertThat(afterRelease).isGreaterThan(afterCancel);
+        assertThat(index.version()).isEqualTo(afterRelease);
+    }
+
+    @Test
+    public void versionShouldChangeOncePerConfirmOrCancel(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        long initial = index.version();
+
+        BookingOccupancyIndex.Reservation reservation = index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(2))).orElseThrow();
+        long whilePending = index.version();
+        reservation.confirm();
+        long afterConfirm = index.version();
+        index.reserve(Booking.of("R1", tomorrow.plusDays(1), tomorrow.plusDays(2))).orElseThrow().confirm();
+        long afterUpdate = index.version();
+        index.reserve(Booking.of("R2", tomorrow.plusDays(5), tomorrow.plusDays(7))).orElseThrow().cancel();
+
+        assertThat(whilePending).isEqualTo(initial);
+        assertThat(afterConfirm).isEqualTo(initial + 1);
+        assertThat(afterUpdate).isEqualTo(afterConfirm + 1);
+        assertThat(index.version()).isEqualTo(afterUpdate + 1);
+    }
+
+    @Test
+    public void refreshShouldFollowBookingsWrittenByOtherNodes(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        BookingOccupancyIndex shared = sharedIndex();
+        shared.reserve(Booking.of("local", tomorrow, tomorrow.plusDays(1))).orElseThrow().confirm();
+        long before = shared.version();
+        when(repository.findAllOverlapping(any(), any())).thenReturn(List.of(Booking.of("remote", 1L, tomorrow.plusDays(4), tomorrow.plusDays(5))));
+
+        shared.refresh();
+
+        assertThat(shared.bookedDates()).containsExactlyInAnyOrder(tomorrow.plusDays(4), tomorrow.plusDays(5));
+        assertThat(shared.version()).isGreaterThan(before);
+        long refreshed = shared.version();
+        shared.refresh();
+        assertThat(shared.version()).isEqualTo(refreshed);
+    }
+
+    @Test
+    public void refreshShouldKeepChangesMadeWhileReadingTheDatabase(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        BookingOccupancyIndex shared = sharedIndex();
+        BookingOccupancyIndex.Reservation pending = shared.reserve(Booking.of("pending", tomorrow, tomorrow.plusDays(1))).orElseThrow();
+        shared.refresh();
+        assertThat(shared.bookedDates()).containsExactlyInAnyOrder(tomorrow, tomorrow.plusDays(1));
+
+        BookingOccupancyIndex.Reservation confirmedDuringRead = shared.reserve(Booking.of("new", tomorrow.plusDays(4), tomorrow.plusDays(4))).orElseThrow();
+        when(repository.findAllOverlapping(any(), any())).thenAnswer(invocation -> {
+            pending.confirm();
+            shared.release("pending");
+            confirmedDuringRead.confirm();
+            return List.of(Booking.of("pending", 1L, tomorrow, tomorrow.plusDays(1)));
+        });
+        shared.refresh();
+
+        assertThat(shared.bookedDates()).containsExactly(tomorrow.plusDays(4));
+    }
+
+    @Test
+    public void sharedIndexShouldRefreshBeforeRejectingReservation(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        when(repository.findAllOverlapping(any(), any())).thenReturn(List.of(Booking.of("remote", 1L, tomorrow, tomorrow.plusDays(1))));
+        BookingOccupancyIndex shared = sharedIndex();
+        index.load();
+        when(repository.findAllOverlapping(any(), any())).thenReturn(List.of());
+
+        assertThat(shared.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1)))).isPresent();
+        assertThat(index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1)))).isEmpty();
+    }
+
+    @Test
+    public void sharedIndexShouldNotReReadDatabaseWhileFresh(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        when(repository.findAllOverlapping(any(), any())).thenReturn(List.of(Booking.of("remote", 1L, tomorrow, tomorrow.plusDays(1))));
+        BookingOccupancyIndex shared = sharedIndex(TimeUnit.HOURS.toMillis(1));
+
+        assertThat(shared.isStale()).isFalse();
+        assertThat(shared.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1)))).isEmpty();
+        assertThat(shared.reserve(Booking.of("R2", tomorrow, tomorrow.plusDays(1)))).isEmpty();
+
+        verify(repository, times(1)).findAllOverlapping(any(), any());
+    }
+
+    @Test
+    public void versionShouldChangeWhenWindowRolls(){
+        long before = index.version();
+
+        today.set(today.get().plusDays(1));
+
+        long rolled = index.version();
+        assertThat(rolled).isGreaterThan(before);
+        assertThat(index.version()).isEqualTo(rolled);
+    }
+
+    @Test
+    public void windowShouldRollWithoutReadingRepository(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(2))).orElseThrow().confirm();
+
+        today.set(today.get().plusDays(2));
+
+        assertThat(index.bookedDates()).containsExactly(tomorrow.plusDays(2));
+        assertThat(index.availableDates()).hasSize((int) latestDateInDays - 1);
+        verify(repository, never()).findAllOverlapping(any(), any());
+    }
+
+    private BookingOccupancyIndex sharedIndex() {
+        return sharedIndex(0);
+    }
+
+    private BookingOccupancyIndex sharedIndex(long staleAfterMillis) {
+        BookingOccupancyIndex shared = new BookingOccupancyIndex(latestDateInDays, true, staleAfterMillis, repository, roomInventory, dateUtils);
+        shared.load();
+        return shared;
+    }
+}
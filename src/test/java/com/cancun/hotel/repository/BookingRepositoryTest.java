@@ -0,0 +1,126 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class BookingRepositoryTest {
+
+    private static final LocalDate MOCK_DATE = LocalDate.of(2021, 12, 25);
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void init(){
+        repository.saveAll(List.of(
+                Booking.of("past", 1L, MOCK_DATE.minusDays(10), MOCK_DATE.minusDays(8)),
+                Booking.of("touchesStart", 1L, MOCK_DATE.minusDays(1), MOCK_DATE),
+                Booking.of("inside", 1L, MOCK_DATE.plusDays(3), MOCK_DATE.plusDays(4)),
+                Booking.of("touchesEnd", 2L, MOCK_DATE.plusDays(10), MOCK_DATE.plusDays(12)),
+                Booking.of("future", 2L, MOCK_DATE.plusDays(11), MOCK_DATE.plusDays(13))
+        ));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void findAllOverlappingShouldReturnOnlyBookingsTouchingRange(){
+        List<Booking> bookings = repository.findAllOverlapping(MOCK_DATE, MOCK_DATE.plusDays(10));
+
+        assertThat(bookings)
+                .extracting(Booking::getId)
+                .containsExactlyInAnyOrder("touchesStart", "inside", "touchesEnd");
+    }
+
+    @Test
+    public void findSameOrOverlappingShouldReturnGivenIdAndOverlapsInSameRoom(){
+        assertThat(ids(repository.findSameOrOverlapping("other", 1L, 1L, MOCK_DATE.plusDays(4), MOCK_DATE.plusDays(5)))).containsExactly("inside");
+        assertThat(ids(repository.findSameOrOverlapping("inside", 1L, 1L, MOCK_DATE.plusDays(4), MOCK_DATE.plusDays(5)))).containsExactly("inside");
+        assertThat(ids(repository.findSameOrOverlapping("future", 1L, 1L, MOCK_DATE.plusDays(5), MOCK_DATE.plusDays(7)))).containsExactly("future");
+        assertThat(ids(repository.findSameOrOverlapping("other", 2L, 1L, MOCK_DATE.plusDays(4), MOCK_DATE.plusDays(5)))).isEmpty();
+    }
+
+    @Test
+    public void findSameOrOverlappingShouldMatchBookingsWithoutRoomOnlyInDefaultRoom(){
+        repository.save(Booking.of("legacy", null, MOCK_DATE.plusDays(20), MOCK_DATE.plusDays(21)));
+
+        assertThat(ids(repository.findSameOrOverlapping("other", 1L, 1L, MOCK_DATE.plusDays(21), MOCK_DATE.plusDays(22)))).containsExactly("legacy");
+        assertThat(ids(repository.findSameOrOverlapping("other", 2L, 1L, MOCK_DATE.plusDays(21), MOCK_DATE.plusDays(22)))).isEmpty();
+        assertThat(ids(repository.findSameOrOverlapping("other", 1L, null, MOCK_DATE.plusDays(21), MOCK_DATE.plusDays(22)))).isEmpty();
+    }
+
+    @Test
+    public void keysetPagesShouldCoverAllBookingsInCreationOrder(){
+        List<String> expected = repository.findAll().stream()
+                .sorted(Comparator.comparing(Booking::getCreated).thenComparing(Booking::getId))
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        List<String> paged = new ArrayList<>();
+        List<Booking> page = repository.findFirstPage(PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            page.forEach(booking -> paged.add(booking.getId()));
+            Booking last = page.get(page.size() - 1);
+            page = repository.findPageAfter(last.getCreated(), last.getId(), PageRequest.of(0, 2));
+        }
+
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void persistAllShouldInsertEveryBooking(){
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            bookings.add(Booking.of("batch-" + i, 3L, MOCK_DATE.plusDays(i), MOCK_DATE.plusDays(i)));
+        }
+
+        repository.persistAll(bookings);
+        entityManager.clear();
+
+        assertThat(repository.count()).isEqualTo(125);
+        assertThat(ids(repository.findSameOrOverlapping("other", 3L, 1L, MOCK_DATE.plusDays(119), MOCK_DATE.plusDays(119)))).containsExactly("batch-119");
+    }
+
+    @Test
+    public void forEachBookingShouldVisitAllBookingsDetached(){
+        List<Booking> visited = new ArrayList<>();
+
+        repository.forEachBooking(visited::add);
+
+        assertThat(visited).hasSize(5);
+        assertThat(visited).noneMatch(entityManager.getEntityManager()::contains);
+    }
+
+    @Test
+    public void checkInAndCheckOutShouldBeIndexed(){
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_name = 'BOOKING'", String.class);
+
+        assertThat(indexes).contains("IDX_BOOKING_CHECK_IN", "IDX_BOOKING_CHECK_OUT");
+    }
+
+    private static List<String> ids(List<Booking> bookings){
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.Application;
+import com.cancun.hotel.domain.Booking;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("load")
+public class BookingStorageLoadComparisonTest {
+    private static final Logger log = LoggerFactory.getLogger(BookingStorageLoadComparisonTest.class);
+
+    private static final int concurrency = 32;
+    private static final int writesPerStorage = 5_000;
+    private static final int warmUpWrites = 500;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void h2AndJournalShouldStoreSameLoad() throws Exception {
+        for (String profile : new String[]{"default", "journal"}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .profiles(profile)
+                    .properties("server.port=0", "spring.jpa.show-sql=false")
+                    .run("--booking.journal.directory=" + directory)) {
+                BookingRepository repository = context.getBean(BookingRepository.class);
+                long stored = repository.count();
+
+                run(repository, warmUpWrites);
+                long started = System.nanoTime();
+                long[] latencies = run(repository, writesPerStorage);
+                long elapsed = System.nanoTime() - started;
+
+                Arrays.sort(latencies);
+                log.info("storage={} concurrency={} writes={} throughput={} writes/s p50={} us p99={} us",
+                        profile, concurrency, writesPerStorage,
+                        writesPerStorage * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed),
+                        TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]),
+                        TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length * 99 / 100]));
+                assertThat(repository.count()).isEqualTo(stored + warmUpWrites + writesPerStorage);
+            }
+        }
+    }
+
+    private long[] run(BookingRepository repository, int writes) throws Exception {
+        LocalDate checkIn = LocalDate.now().minusYears(1);
+        long[] latencies = new long[writes];
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < writes; i++) {
+            int write = i;
+            futures.add(executor.submit(() -> {
+                long started = System.nanoTime();
+                repository.save(Booking.of(UUID.randomUUID().toString(), 1L, checkIn, checkIn.plusDays(1)));
+                latencies[write] = System.nanoTime() - started;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return latencies;
+    }
+}
@@ -0,0 +1,94 @@
+package com.cancun.hotel.repository;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.utils.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.dao.PersistenceExceptionTranslationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ImportAutoConfiguration(PersistenceExceptionTranslationAutoConfiguration.class)
+@Import({JpaBookingDayStore.class, JpaBookingDayStoreTest.Config.class})
+public class JpaBookingDayStoreTest {
+
+    private static final LocalDate MOCK_DATE = LocalDate.of(2021, 12, 25);
+
+    @Autowired
+    private BookingDayStore dayStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    public void claimShouldInsertOneRowPerNight(){
+        dayStore.claim(List.of(Booking.of("A", 1L, MOCK_DATE, MOCK_DATE.plusDays(2))));
+
+        assertThat(nights("A")).containsExactly(MOCK_DATE, MOCK_DATE.plusDays(1), MOCK_DATE.plusDays(2));
+    }
+
+    @Test
+    public void claimShouldRejectNightHeldByAnotherBooking(){
+        dayStore.claim(List.of(Booking.of("A", 1L, MOCK_DATE, MOCK_DATE.plusDays(1))));
+        entityManager.clear();
+
+        assertThatThrownBy(() -> dayStore.claim(List.of(Booking.of("B", 1L, MOCK_DATE.plusDays(1), MOCK_DATE.plusDays(2)))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    public void claimShouldAllowSameNightInAnotherRoom(){
+        dayStore.claim(List.of(Booking.of("A", 1L, MOCK_DATE, MOCK_DATE.plusDays(1))));
+        dayStore.claim(List.of(Booking.of("B", 2L, MOCK_DATE, MOCK_DATE.plusDays(1))));
+
+        assertThat(nights("B")).containsExactly(MOCK_DATE, MOCK_DATE.plusDays(1));
+    }
+
+    @Test
+    public void claimShouldDiffNightsWhenBookingIsUpdated(){
+        dayStore.claim(List.of(Booking.of("A", 1L, MOCK_DATE, MOCK_DATE.plusDays(1))));
+        dayStore.claim(List.of(Booking.of("A", 1L, MOCK_DATE.plusDays(1), MOCK_DATE.plusDays(2))));
+        dayStore.claim(List.of(Booking.of("B", 1L, MOCK_DATE, MOCK_DATE)));
+
+        assertThat(nights("A")).containsExactly(MOCK_DATE.plusDays(1), MOCK_DATE.plusDays(2));
+        assertThat(nights("B")).containsExactly(MOCK_DATE);
+    }
+
+    @Test
+    public void releaseShouldFreeEveryNightOfBooking(){
+        dayStore.claim(List.of(
+                Booking.of("A", 1L, MOCK_DATE, MOCK_DATE.plusDays(1)),
+                Booking.of("B", 1L, MOCK_DATE.plusDays(2), MOCK_DATE.plusDays(3))));
+
+        dayStore.release("A");
+
+        assertThat(nights("A")).isEmpty();
+        assertThat(nights("B")).hasSize(2);
+    }
+
+    private List<LocalDate> nights(String bookingId){
+        return jdbcTemplate.queryForList("select night from booking_day where booking_id = ? order by night", LocalDate.class, bookingId);
+    }
+
+    static class Config {
+        @Bean
+        public DateUtils dateUtils() {
+            return () -> MOCK_DATE;
+        }
+    }
+}
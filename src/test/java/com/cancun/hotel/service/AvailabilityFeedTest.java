@@ -0,0 +1,120 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.AvailabilityChange;
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.repository.BookingRepository;
+import com.cancun.hotel.repository.RoomInventory;
+import com.cancun.hotel.utils.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class AvailabilityFeedTest {
+
+    private static final long latestDateInDays = 10;
+    private final DateUtils dateUtils = () -> LocalDate.of(2021, 12, 25);
+    private BookingOccupancyIndex index;
+    private AvailabilityFeed feed;
+
+    @BeforeEach
+    public void init(){
+        RoomInventory roomInventory = Mockito.mock(RoomInventory.class);
+        when(roomInventory.roomIds()).thenReturn(List.of(1L));
+        index = new BookingOccupancyIndex(latestDateInDays, false, 0, Mockito.mock(BookingRepository.class), roomInventory, dateUtils);
+        index.load();
+        feed = new AvailabilityFeed(index, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void close(){
+        feed.close();
+    }
+
+    @Test
+    public void subscriberShouldGetSnapshotThenDeltas() throws Exception {
+        LocalDate tomorrow = dateUtils.tomorrow();
+        Recorder subscriber = new Recorder(Long.MAX_VALUE);
+        feed.subscribe().subscribe(subscriber);
+        await(() -> subscriber.events.size() == 1);
+
+        index.reserve(Booking.of("R1", tomorrow, tomorrow.plusDays(1))).orElseThrow().confirm();
+        await(() -> subscriber.events.size() == 2);
+        index.release("R1");
+        await(() -> subscriber.events.size() == 3);
+
+        AvailabilityChange snapshot = subscriber.events.get(0).data().data;
+        AvailabilityChange booked = subscriber.events.get(1).data().data;
+        AvailabilityChange freed = subscriber.events.get(2).data().data;
+        assertThat(subscriber.events.get(0).event()).isEqualTo("snapshot");
+        assertThat(snapshot.available).hasSize((int) latestDateInDays);
+        assertThat(subscriber.events.get(1).event()).isEqualTo("delta");
+        assertThat(booked.booked).containsExactly(tomorrow.toString(), tomorrow.plusDays(1).toString());
+        assertThat(booked.free).isEmpty();
+        assertThat(freed.free).containsExactly(tomorrow.toString(), tomorrow.plusDays(1).toString());
+        assertThat(freed.version).isGreaterThan(booked.version);
+    }
+
+    @Test
+    public void slowSubscriberShouldGetOneCoalescedDelta() throws Exception {
+        LocalDate tomorrow = dateUtils.tomorrow();
+        Recorder fast = new Recorder(Long.MAX_VALUE);
+        Recorder slow = new Recorder(1);
+        feed.subscribe().subscribe(fast);
+        feed.subscribe().subscribe(slow);
+        await(() -> fast.events.size() == 1 && slow.events.size() == 1);
+
+        for (int i = 0; i < 3; i++) {
+            index.reserve(Booking.of("R" + i, tomorrow.plusDays(i * 3L), tomorrow.plusDays(i * 3L + 1))).orElseThrow().confirm();
+        }
+        await(() -> fast.events.stream().mapToInt(event -> event.data().data.booked == null ? 0 : event.data().data.booked.size()).sum() == 6);
+        slow.request(1);
+        await(() -> slow.events.size() == 2);
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertThat(slow.events).hasSize(2);
+        assertThat(slow.events.get(1).data().data.booked).hasSize(6);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static class Recorder extends BaseSubscriber<ServerSentEvent<BookingResponse<AvailabilityChange>>> {
+        private final List<ServerSentEvent<BookingResponse<AvailabilityChange>>> events = new CopyOnWriteArrayList<>();
+        private final long initialRequest;
+
+        private Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(initialRequest);
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<BookingResponse<AvailabilityChange>> event) {
+            events.add(event);
+        }
+    }
+}
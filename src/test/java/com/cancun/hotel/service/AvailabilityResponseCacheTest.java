@@ -0,0 +1,119 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.domain.EncodedJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AvailabilityResponseCacheTest {
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicInteger encodings = new AtomicInteger();
+    private final AvailabilityResponseCache cache = new AvailabilityResponseCache(new ObjectMapper(), version::get, () -> {
+        encodings.incrementAndGet();
+        return Set.of(LocalDate.of(2021, 12, 25));
+    });
+
+    @Test
+    public void concurrentReadersShouldShareOneEncodedBuffer() throws Exception {
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return cache.current().getBody();
+            }));
+        }
+        start.countDown();
+        byte[] first = futures.get(0).get();
+        for (Future<byte[]> future : futures) {
+            assertThat(future.get()).isSameAs(first);
+        }
+        executor.shutdown();
+
+        assertThat(encodings.get()).isEqualTo(1);
+        assertThat(new String(first)).isEqualTo("{\"data\":[\"2021-12-25\"],\"errors\":[]}");
+        assertThat(cache.current().getETag()).isEqualTo(String.format("\"%s\"", DigestUtils.md5DigestAsHex(first)));
+    }
+
+    @Test
+    public void callersArrivingWhileLeaderEncodesShouldShareItsResult() throws Exception {
+        int callers = 16;
+        CountDownLatch arrived = new CountDownLatch(callers);
+        AtomicInteger computations = new AtomicInteger();
+        AvailabilityResponseCache held = new AvailabilityResponseCache(new ObjectMapper(), () -> {
+            arrived.countDown();
+            return 7;
+        }, () -> {
+            computations.incrementAndGet();
+            await(arrived);
+            return Set.of(LocalDate.of(2021, 12, 25));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> held.current().getBody()));
+        }
+        byte[] first = futures.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<byte[]> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        executor.shutdown();
+
+        assertThat(arrived.getCount()).isZero();
+        assertThat(computations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void newVersionShouldRebuildOnce(){
+        byte[] before = cache.current().getBody();
+
+        version.incrementAndGet();
+        EncodedJson<BookingResponse<Set<String>>> after = cache.current();
+
+        assertThat(after.getBody()).isNotSameAs(before);
+        assertThat(cache.current()).isSameAs(after);
+        assertThat(encodings.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void eTagShouldFollowBodyRatherThanVersion(){
+        AvailabilityResponseCache otherNode = new AvailabilityResponseCache(new ObjectMapper(), () -> 40, () -> Set.of(LocalDate.of(2021, 12, 25)));
+        String before = cache.current().getETag();
+
+        version.incrementAndGet();
+        String unchanged = cache.current().getETag();
+        AvailabilityResponseCache changed = new AvailabilityResponseCache(new ObjectMapper(), version::get, () -> Set.of(LocalDate.of(2021, 12, 26)));
+
+        assertThat(unchanged).isEqualTo(before);
+        assertThat(otherNode.current().getETag()).isEqualTo(before);
+        assertThat(changed.current().getETag()).isNotEqualTo(before);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
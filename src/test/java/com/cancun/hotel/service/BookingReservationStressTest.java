@@ -0,0 +1,182 @@
+package com.cancun.hotel.service;
+
+import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.repository.BookingDayStore;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
+import com.cancun.hotel.repository.BookingRepository;
+import com.cancun.hotel.repository.RoomInventory;
+import com.cancun.hotel.repository.SingleNodeBookingDayStore;
+import com.cancun.hotel.utils.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class BookingReservationStressTest {
+    private static final Logger log = LoggerFactory.getLogger(BookingReservationStressTest.class);
+
+    private static final long latestDateInDays = 30;
+    private static final long maxBookingPeriodInDays = 3;
+    private final DateUtils dateUtils = () -> LocalDate.of(2021, 12, 25);
+    private BookingService service;
+
+    @BeforeEach
+    public void init(){
+        BookingRepository repository = Mockito.mock(BookingRepository.class, Mockito.withSettings().stubOnly());
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.findById(any())).thenAnswer(invocation -> Optional.of(Booking.of(invocation.getArgument(0), null, null)));
+        RoomInventory roomInventory = Mockito.mock(RoomInventory.class);
+        when(roomInventory.roomIds()).thenReturn(List.of(1L));
+        BookingOccupancyIndex occupancyIndex = new BookingOccupancyIndex(latestDateInDays, false, 0, repository, roomInventory, dateUtils);
+        occupancyIndex.load();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingValidator validator = new BookingValidator(latestDateInDays, List.of(new CheckInDateStep(), new CheckOutDateStep(), new StayPeriodStep(maxBookingPeriodInDays), new RoomAvailabilityStep(occupancyIndex)), dateUtils, meterRegistry);
+        BookingDayStore dayStore = new SingleNodeBookingDayStore();
+        service = new BookingServiceImpl(repository, dayStore, occupancyIndex, validator, new BookingCounts(repository, meterRegistry), meterRegistry);
+    }
+
+    @Test
+    public void concurrentRequestsForSameNightsShouldHaveOneWinner() throws Exception {
+        int threads = 32;
+        LocalDate checkIn = dateUtils.tomorrow();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    service.saveBooking(Booking.of(UUID.randomUUID().toString(), checkIn, checkIn.plusDays(2)));
+                    winners.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(winners.get()).isEqualTo(1);
+        assertThat(conflicts.get()).isEqualTo(threads - 1);
+        assertThat(service.findAllBookedDates()).hasSize(3);
+    }
+
+    @Test
+    public void randomCreateUpdateAndCancelShouldNeverOverlap() throws Exception {
+        runRandomWorkload(4, 500);
+    }
+
+    @Test
+    @Tag("load")
+    public void randomWorkloadShouldNeverOverlapAsThreadsScale() throws Exception {
+        for (int threads : new int[]{1, 2, 4, 8, 16}) {
+            init();
+            runRandomWorkload(threads, 5_000);
+        }
+    }
+
+    private void runRandomWorkload(int threads, int attemptsPerThread) throws Exception {
+        Map<LocalDate, String> ledger = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicLong successes = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                runRandomWorkload(attemptsPerThread, ledger, overlaps, successes);
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+
+        long attempts = (long) threads * attemptsPerThread;
+        log.info("threads={} attempts={} reserved={} throughput={} ops/s",
+                threads, attempts, successes.get(), attempts * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed));
+        assertThat(overlaps.get()).isZero();
+        assertThat(service.findAllBookedDates()).containsExactlyInAnyOrderElementsOf(ledger.keySet());
+    }
+
+    private void runRandomWorkload(int attemptsPerThread, Map<LocalDate, String> ledger, AtomicInteger overlaps, AtomicLong successes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Booking> mine = new ArrayList<>();
+        for (int i = 0; i < attemptsPerThread; i++) {
+            if (!mine.isEmpty() && random.nextInt(3) == 0) {
+                Booking booking = mine.remove(random.nextInt(mine.size()));
+                forget(ledger, booking);
+                service.cancelBooking(booking.getId());
+                continue;
+            }
+            Booking previous = !mine.isEmpty() && random.nextBoolean() ? mine.get(random.nextInt(mine.size())) : null;
+            String id = previous != null ? previous.getId() : UUID.randomUUID().toString();
+            LocalDate checkIn = dateUtils.tomorrow().plusDays(random.nextInt((int) latestDateInDays - 2));
+            Booking booking = Booking.of(id, checkIn, checkIn.plusDays(random.nextInt((int) maxBookingPeriodInDays)));
+            if (previous != null) {
+                forget(ledger, previous);
+            }
+            try {
+                service.saveBooking(booking);
+            } catch (BookingConflictException e) {
+                if (previous != null) {
+                    record(ledger, overlaps, previous);
+                }
+                continue;
+            }
+            successes.incrementAndGet();
+            mine.remove(previous);
+            mine.add(booking);
+            record(ledger, overlaps, booking);
+        }
+    }
+
+    private void record(Map<LocalDate, String> ledger, AtomicInteger overlaps, Booking booking) {
+        dateUtils.streamOf(booking.getCheckIn(), booking.getCheckOut()).forEach(day -> {
+            String owner = ledger.put(day, booking.getId());
+            if (owner != null && !owner.equals(booking.getId())) {
+                overlaps.incrementAndGet();
+            }
+        });
+    }
+
+    private void forget(Map<LocalDate, String> ledger, Booking booking) {
+        dateUtils.streamOf(booking.getCheckIn(), booking.getCheckOut()).forEach(day -> ledger.remove(day, booking.getId()));
+    }
+}
@@ -1,14 +1,28 @@
 package com.cancun.hotel.service;
 
 import com.cancun.hotel.domain.Booking;
+import com.cancun.hotel.domain.BookingCursor;
+import com.cancun.hotel.domain.BookingPage;
+import com.cancun.hotel.domain.BookingResponse;
+import com.cancun.hotel.repository.BookingDayStore;
+import com.cancun.hotel.repository.BookingOccupancyIndex;
 import com.cancun.hotel.repository.BookingRepository;
+import com.cancun.hotel.repository.RoomInventory;
 import com.cancun.hotel.utils.DateUtils;
+import com.cancun.hotel.utils.Rejection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
@@ -20,26 +34,48 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+@ExtendWith(MockitoExtension.class)
 public class BookingServiceTest {
 
     private static final long latestDateInDays = 30;
     private static final long maxBookingPeriodInDays = 3;
+    private static final List<Long> roomIds = List.of(1L);
     private static BookingService service;
     private static BookingRepository repository;
+    private static BookingDayStore dayStore;
+    private static RoomInventory roomInventory;
+    private static BookingOccupancyIndex occupancyIndex;
     private static DateUtils dateUtils;
+    private static SimpleMeterRegistry meterRegistry;
     private static LocalDate firstValidDate;
     private static LocalDate lastValidDate;
 
+    @Captor
+    private ArgumentCaptor<List<Booking>> persisted;
+
     @BeforeAll
     public static void init(){
         repository = Mockito.mock(BookingRepository.class);
+        dayStore = Mockito.mock(BookingDayStore.class);
         dateUtils = () -> LocalDate.of(2021, 12, 25);
+        meterRegistry = new SimpleMeterRegistry();
+        roomInventory = Mockito.mock(RoomInventory.class);
+        when(roomInventory.roomIds()).thenReturn(roomIds);
+        occupancyIndex = new BookingOccupancyIndex(latestDateInDays, false, 0, repository, roomInventory, dateUtils);
 
-        service = new BookingServiceImpl(
+        BookingValidator validator = new BookingValidator(
                 latestDateInDays,
-                maxBookingPeriodInDays,
+                List.of(new CheckInDateStep(), new CheckOutDateStep(), new StayPeriodStep(maxBookingPeriodInDays), new RoomAvailabilityStep(occupancyIndex)),
+                dateUtils,
+                meterRegistry
+        );
+        service = new BookingServiceImpl(
                 repository,
-                dateUtils
+                dayStore,
+                occupancyIndex,
+                validator,
+                new BookingCounts(repository, meterRegistry),
+                meterRegistry
         );
 
         firstValidDate = dateUtils.tomorrow();
@@ -48,7 +84,9 @@ public class BookingServiceTest {
 
     @AfterEach
     public void reset(){
-        Mockito.reset(repository);
+        Mockito.reset(repository, dayStore);
+        when(roomInventory.roomIds()).thenReturn(roomIds);
+        occupancyIndex.load();
     }
 
     @Test
@@ -151,7 +189,7 @@ public class BookingServiceTest {
         LocalDate checkOut = getDefaultCheckout(checkIn);
         Booking newBooking = Booking.of("newBooking", checkIn, checkOut);
 
-        when(repository.findAll()).thenReturn(List.of(preBooked));
+        givenStoredBookings(List.of(preBooked));
 
         List<String> errors = service.validateBooking(newBooking);
 
@@ -165,7 +203,7 @@ public class BookingServiceTest {
         Booking preBooked = Booking.of("preBooked", tomorrow.plusDays(1), tomorrow.plusDays(2));
         Booking newBooking = Booking.of("newBooking", tomorrow, tomorrow.plusDays(1));
 
-        when(repository.findAll()).thenReturn(List.of(preBooked));
+        givenStoredBookings(List.of(preBooked));
 
         List<String> errors = service.validateBooking(newBooking);
 
@@ -180,8 +218,7 @@ public class BookingServiceTest {
         Booking newBooking = Booking.of("preBooked", tomorrow.plusDays(1), tomorrow.plusDays(2));
         Booking otherBooking = Booking.of("otherBooking", tomorrow.plusDays(latestDateInDays).minusDays(2), tomorrow.plusDays(latestDateInDays).minusDays(1));
 
-        when(repository.findAll()).thenReturn(List.of(preBooked, otherBooking));
-        when(repository.findById("preBooked")).thenReturn(Optional.of(preBooked));
+        givenStoredBookings(List.of(preBooked, otherBooking));
 
         List<String> errors = service.validateBooking(newBooking);
 
@@ -195,8 +232,7 @@ public class BookingServiceTest {
         Booking newBooking = Booking.of("preBooked", tomorrow.plusDays(1), tomorrow.plusDays(2));
         Booking otherBooking = Booking.of("otherBooking", tomorrow.plusDays(2), tomorrow.plusDays(3));
 
-        when(repository.findAll()).thenReturn(List.of(preBooked, otherBooking));
-        when(repository.findById("preBooked")).thenReturn(Optional.of(preBooked));
+        givenStoredBookings(List.of(preBooked, otherBooking));
 
         List<String> errors = service.validateBooking(newBooking);
 
@@ -206,7 +242,7 @@ public class BookingServiceTest {
 
     @Test
     public void saveBookingShouldCallRepository(){
-        Booking booking = getValidBooking();
+        Booking booking = getValidBooking().inRoom(1L);
 
         service.saveBooking(booking);
 
@@ -216,16 +252,274 @@ public class BookingServiceTest {
         assertThat(argument.getValue()).isEqualTo(booking);
     }
 
+    @Test
+    public void saveBookingShouldKeepCreationTimeOfStoredBooking(){
+        Booking update = getValidBooking("updated").inRoom(1L);
+        Instant created = update.getCreated().minusSeconds(3600);
+        when(repository.findSameOrOverlapping("updated", 1L, 1L, update.getCheckIn(), update.getCheckOut()))
+                .thenReturn(List.of(Booking.of("updated", 1L, firstValidDate, firstValidDate, created)));
+
+        service.saveBooking(update);
+
+        ArgumentCaptor<Booking> argument = ArgumentCaptor.forClass(Booking.class);
+        verify(repository).save(argument.capture());
+        assertThat(argument.getValue().getCreated()).isEqualTo(created);
+        assertThat(argument.getValue().getCheckIn()).isEqualTo(update.getCheckIn());
+    }
+
     @Test
     public void deleteBookingShouldCallRepository(){
-        String bookingId = "mocked";
+        Booking booking = getValidBooking();
+        when(repository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        assertThat(service.cancelBooking(booking.getId())).isTrue();
+
+        verify(repository, times(1)).delete(booking);
+    }
+
+    @Test
+    public void cancelBookingShouldReturnFalseWhenBookingIsUnknown(){
+        when(repository.findById("unknown")).thenReturn(Optional.empty());
+
+        assertThat(service.cancelBooking("unknown")).isFalse();
+
+        verify(repository, never()).delete(any());
+        verify(dayStore, never()).release(any());
+    }
+
+    @Test
+    public void saveBookingShouldClaimEveryNightInSameCall(){
+        Booking booking = getValidBooking().inRoom(1L);
+
+        service.saveBooking(booking);
+
+        verify(dayStore, times(1)).claim(List.of(booking));
+    }
+
+    @Test
+    public void saveBookingShouldThrowConflictWhenNightIsClaimedByAnotherNode(){
+        Booking booking = getValidBooking();
+        doThrow(new DataIntegrityViolationException("booking_day")).when(dayStore).claim(any());
+
+        BookingConflictException conflict = assertThrows(BookingConflictException.class, () -> service.saveBooking(booking));
+
+        assertThat(conflict.getMessage()).isEqualTo(ALREADY_BOOKED);
+        assertThat(service.findAllBookedDates()).isEmpty();
+    }
+
+    @Test
+    public void saveBookingsShouldThrowConflictWhenNightIsClaimedByAnotherNode(){
+        doThrow(new DataIntegrityViolationException("booking_day")).when(dayStore).claim(any());
+
+        assertThrows(BookingConflictException.class, () -> service.saveBookings(List.of(getValidBooking("B1"))));
+        assertThat(service.findAllBookedDates()).isEmpty();
+    }
+
+    @Test
+    public void cancelBookingShouldReleaseClaimedNights(){
+        when(repository.findById("mocked")).thenReturn(Optional.of(getValidBooking()));
+
+        service.cancelBooking("mocked");
+
+        verify(dayStore, times(1)).release("mocked");
+    }
+
+    @Test
+    public void saveBookingShouldOccupyDates(){
+        Booking booking = getValidBooking();
+
+        service.saveBooking(booking);
+
+        assertThat(service.findAllBookedDates()).hasSize((int) maxBookingPeriodInDays);
+        assertThat(service.validateBooking(getValidBooking())).contains(ALREADY_BOOKED);
+    }
+
+    @Test
+    public void saveBookingShouldThrowConflictWhenDatesAreTaken(){
+        service.saveBooking(getValidBooking());
+
+        assertThrows(BookingConflictException.class, () -> service.saveBooking(getValidBooking()));
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    public void saveBookingShouldThrowConflictWhenDatabaseHasOverlap(){
+        Booking booking = getValidBooking();
+        when(repository.findSameOrOverlapping(booking.getId(), 1L, 1L, booking.getCheckIn(), booking.getCheckOut()))
+                .thenReturn(List.of(getValidBooking("stored").inRoom(1L)));
+
+        assertThrows(BookingConflictException.class, () -> service.saveBooking(booking));
+        verify(repository, never()).save(any());
+        assertThat(service.findAllBookedDates()).isEmpty();
+    }
+
+    @Test
+    public void validateBookingShouldTimeEachStepAndCountRejectionReasons(){
+        double tooEarly = rejections(Rejection.TOO_EARLY);
+        double stayTooLong = rejections(Rejection.STAY_TOO_LONG);
+        long checkInChecks = validationCount("check-in");
+        long checkOutChecks = validationCount("check-out");
+        long availabilityChecks = validationCount("availability");
+        Booking invalidBooking = Booking.of("mock", dateUtils.today(), dateUtils.today().plusDays(maxBookingPeriodInDays + 1));
+
+        service.validateBooking(invalidBooking);
+
+        assertThat(rejections(Rejection.TOO_EARLY)).isEqualTo(tooEarly + 1);
+        assertThat(rejections(Rejection.STAY_TOO_LONG)).isEqualTo(stayTooLong + 1);
+        assertThat(validationCount("check-in")).isEqualTo(checkInChecks + 1);
+        assertThat(validationCount("check-out")).isEqualTo(checkOutChecks + 1);
+        assertThat(validationCount("availability")).isEqualTo(availabilityChecks);
+    }
+
+    @Test
+    public void validateBookingShouldSkipAvailabilityOnceCheaperStepRejected(){
+        LocalDate tomorrow = dateUtils.tomorrow();
+        givenStoredBookings(List.of(Booking.of("preBooked", tomorrow, tomorrow.plusDays(1))));
+        double skipped = meterRegistry.get("booking.validation.skipped").tag("step", "availability").counter().count();
+        Booking invalidBooking = Booking.of("mock", tomorrow, lastValidDate.plusDays(1));
+
+        List<String> errors = service.validateBooking(invalidBooking);
+
+        assertThat(errors).containsExactly(String.format(TOO_LATE, "CheckOut", lastValidDate), String.format(STAY_TOO_LONG, maxBookingPeriodInDays));
+        assertThat(meterRegistry.get("booking.validation.skipped").tag("step", "availability").counter().count()).isEqualTo(skipped + 1);
+    }
+
+    @Test
+    public void validatorShouldRunInjectedStepsCheapestFirst(){
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ValidationStep lookup = Mockito.mock(ValidationStep.class);
+        when(lookup.name()).thenReturn("lookup");
+        when(lookup.cost()).thenReturn(ValidationStep.Cost.LOOKUP);
+        BookingValidator validator = new BookingValidator(latestDateInDays, List.of(lookup, new StayPeriodStep(maxBookingPeriodInDays)), dateUtils, registry);
+        Booking invalidBooking = Booking.of("mock", firstValidDate.plusDays(1), firstValidDate);
+
+        List<String> errors = validator.validate(invalidBooking);
+
+        assertThat(errors).containsExactly(CHECK_IN_AFTER_CHECK_OUT);
+        verify(lookup, never()).validate(any());
+        assertThat(registry.get("booking.validation.skipped").tag("step", "lookup").counter().count()).isEqualTo(1);
+        assertThat(registry.get("booking.validation").tag("step", "period").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void saveBookingShouldCountConflictAndUpdateGauges(){
+        double alreadyBooked = rejections(Rejection.ALREADY_BOOKED);
+        double stored = meterRegistry.get("booking.stored").gauge().value();
+        Booking booking = getValidBooking();
+        service.saveBooking(booking);
+
+        assertThrows(BookingConflictException.class, () -> service.saveBooking(getValidBooking()));
+
+        assertThat(rejections(Rejection.ALREADY_BOOKED)).isEqualTo(alreadyBooked + 1);
+        assertThat(meterRegistry.get("booking.stored").gauge().value()).isEqualTo(stored + 1);
+        assertThat(meterRegistry.get("booking.window.occupied.days").gauge().value()).isEqualTo(maxBookingPeriodInDays);
+
+        when(repository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        service.cancelBooking(booking.getId());
+
+        assertThat(meterRegistry.get("booking.stored").gauge().value()).isEqualTo(stored);
+        verify(repository, never()).count();
+    }
+
+    @Test
+    public void saveBookingsShouldRejectConflictsInsideBatchAndPersistTheRest(){
+        Booking first = getValidBooking("B1");
+        Booking clash = getValidBooking("B2");
+        Booking later = Booking.of("B3", firstValidDate.plusDays(5), firstValidDate.plusDays(6));
+
+        List<BookingResponse<Booking>> results = service.saveBookings(List.of(first, clash, later));
+
+        assertThat(results.get(0).data.getRoomId()).isEqualTo(1L);
+        assertThat(results.get(1).errors).containsExactly(ALREADY_BOOKED);
+        assertThat(results.get(2).data.getId()).isEqualTo("B3");
+        verify(repository, times(1)).persistAll(persisted.capture());
+        assertThat(persisted.getValue()).extracting(Booking::getId).containsExactly("B1", "B3");
+        verify(repository, never()).save(any());
+        assertThat(service.findAllBookedDates()).hasSize((int) maxBookingPeriodInDays + 2);
+    }
+
+    @Test
+    public void saveBookingsShouldTreatStoredBookingWithoutRoomAsDefaultRoom(){
+        Booking legacy = Booking.of("legacy", null, firstValidDate, firstValidDate);
+        Booking clash = getValidBooking("B1");
+        when(repository.findAllOverlapping(clash.getCheckIn(), clash.getCheckOut())).thenReturn(List.of(legacy));
+
+        List<BookingResponse<Booking>> results = service.saveBookings(List.of(clash));
 
-        service.cancelBooking(bookingId);
+        assertThat(results.get(0).errors).containsExactly(ALREADY_BOOKED);
+        verify(repository, never()).persistAll(any());
+    }
+
+    @Test
+    public void saveBookingsShouldRejectOverlapsStoredOutsideIndexWithOneQuery(){
+        Booking stored = Booking.of("stored", 1L, firstValidDate, firstValidDate);
+        Booking clash = getValidBooking("B1");
+        Booking invalid = Booking.of("B2", dateUtils.today(), firstValidDate);
+        Booking free = Booking.of("B3", firstValidDate.plusDays(5), firstValidDate.plusDays(6));
+        when(repository.findAllOverlapping(clash.getCheckIn(), free.getCheckOut())).thenReturn(List.of(stored));
+
+        List<BookingResponse<Booking>> results = service.saveBookings(List.of(clash, invalid, free));
+
+        assertThat(results.get(0).errors).containsExactly(ALREADY_BOOKED);
+        assertThat(results.get(1).errors).contains(String.format(TOO_EARLY, "CheckIn", firstValidDate));
+        assertThat(results.get(2).data).isNotNull();
+        verify(repository, times(1)).findAllOverlapping(clash.getCheckIn(), free.getCheckOut());
+        verify(repository, times(1)).persistAll(persisted.capture());
+        assertThat(persisted.getValue()).extracting(Booking::getId).containsExactly("B3");
+        assertThat(service.findAllBookedDates()).hasSize(2);
+    }
 
-        ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
-        verify(repository, times(1)).deleteById(any());
-        verify(repository).deleteById(argument.capture());
-        assertThat(argument.getValue()).isEqualTo(bookingId);
+    @Test
+    public void saveBookingsShouldReleaseReservationsWhenPersistFails(){
+        doThrow(new IllegalStateException("boom")).when(repository).persistAll(any());
+
+        assertThrows(IllegalStateException.class, () -> service.saveBookings(List.of(getValidBooking())));
+        assertThat(service.findAllBookedDates()).isEmpty();
+    }
+
+    @Test
+    public void saveBookingShouldAssignFreeRoomWhenNoneIsGiven(){
+        when(roomInventory.roomIds()).thenReturn(List.of(1L, 2L));
+        occupancyIndex.load();
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking first = service.saveBooking(getValidBooking());
+        Booking second = service.saveBooking(getValidBooking());
+
+        assertThat(first.getRoomId()).isEqualTo(1L);
+        assertThat(second.getRoomId()).isEqualTo(2L);
+        assertThat(service.findAllBookedDates()).hasSize((int) maxBookingPeriodInDays);
+        assertThat(service.findAvailableRooms(firstValidDate, lastValidDate)).isEmpty();
+        assertThrows(BookingConflictException.class, () -> service.saveBooking(getValidBooking()));
+    }
+
+    @Test
+    public void validateBookingShouldCheckOnlyRequestedRoom(){
+        when(roomInventory.roomIds()).thenReturn(List.of(1L, 2L));
+        givenStoredBookings(List.of(Booking.of("preBooked", 1L, firstValidDate, firstValidDate.plusDays(1))));
+
+        Booking sameRoom = Booking.of("sameRoom", 1L, firstValidDate, firstValidDate.plusDays(1));
+        Booking otherRoom = Booking.of("otherRoom", 2L, firstValidDate, firstValidDate.plusDays(1));
+        Booking unknownRoom = Booking.of("unknownRoom", 3L, firstValidDate, firstValidDate.plusDays(1));
+
+        assertThat(service.validateBooking(sameRoom)).containsExactly(ALREADY_BOOKED);
+        assertThat(service.validateBooking(otherRoom)).isEmpty();
+        assertThat(service.validateBooking(unknownRoom)).containsExactly(String.format(NO_ROOM_FOUND_FOR_GIVEN_ID, 3L));
+        assertThat(service.findAvailableRooms(firstValidDate, firstValidDate.plusDays(1))).containsExactly(2L);
+    }
+
+    @Test
+    public void cancelBookingShouldReleaseDates(){
+        Booking booking = getValidBooking();
+        service.saveBooking(booking);
+
+        when(repository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        service.cancelBooking(booking.getId());
+
+        assertThat(service.findAllBookedDates()).isEmpty();
+        assertThat(service.validateBooking(getValidBooking())).isEmpty();
     }
 
     @Test
@@ -243,6 +537,35 @@ public class BookingServiceTest {
         assertThat(response).hasSize(3);
     }
 
+    @Test
+    public void findBookingPageShouldReturnCursorWhenMoreBookingsExist(){
+        List<Booking> bookings = List.of(
+                getValidBooking("R1"),
+                getValidBooking("R2"),
+                getValidBooking("R3")
+        );
+
+        when(repository.findFirstPage(PageRequest.of(0, 3))).thenReturn(bookings);
+
+        BookingPage page = service.findBookingPage(null, 2);
+
+        assertThat(page.bookings).hasSize(2);
+        assertThat(page.next).isEqualTo(BookingCursor.of(bookings.get(1)).encode());
+    }
+
+    @Test
+    public void findBookingPageShouldQueryAfterCursorAndEndWithoutNext(){
+        Booking last = getValidBooking("R2");
+        BookingCursor cursor = BookingCursor.of(last);
+
+        when(repository.findPageAfter(last.getCreated(), last.getId(), PageRequest.of(0, 3))).thenReturn(List.of(getValidBooking("R3")));
+
+        BookingPage page = service.findBookingPage(cursor, 2);
+
+        assertThat(page.bookings).hasSize(1);
+        assertThat(page.next).isNull();
+    }
+
     @Test
     public void findByIdShouldCallRepository(){
         String bookingId = "mocked";
@@ -263,7 +586,7 @@ public class BookingServiceTest {
                 Booking.of("R2", lastValidDate.minusDays(2), lastValidDate)
         );
 
-        when(repository.findAll()).thenReturn(bookings);
+        givenStoredBookings(bookings);
 
         Set<LocalDate> bookedDates = service.findAllBookedDates();
 
@@ -280,7 +603,7 @@ public class BookingServiceTest {
 
     @Test
     public void findAllBookedDatesShouldReturnEmptySet(){
-        when(repository.findAll()).thenReturn(Collections.emptyList());
+        givenStoredBookings(Collections.emptyList());
 
         Set<LocalDate> bookedDates = service.findAllBookedDates();
 
@@ -293,7 +616,7 @@ public class BookingServiceTest {
                 Booking.of("R1", firstValidDate.plusDays(3), lastValidDate.minusDays(3))
         );
 
-        when(repository.findAll()).thenReturn(bookings);
+        givenStoredBookings(bookings);
 
         Set<LocalDate> availableDates = service.findAllAvailableDates();
 
@@ -310,18 +633,30 @@ public class BookingServiceTest {
 
     @Test
     public void findAllAvailableDatesShouldReturnEmptySet(){
-        when(repository.findAll())
-                .thenReturn(List.of(
-                        Booking.of(
-                                "mock",
-                                dateUtils.tomorrow(),
-                                dateUtils.tomorrow().plusDays(latestDateInDays))));
+        givenStoredBookings(List.of(
+                Booking.of(
+                        "mock",
+                        dateUtils.tomorrow(),
+                        dateUtils.tomorrow().plusDays(latestDateInDays))));
 
         Set<LocalDate> availableDates = service.findAllAvailableDates();
 
         assertThat(availableDates).isEmpty();
     }
 
+    private static double rejections(Rejection reason){
+        return meterRegistry.counter("booking.rejections", "reason", reason.name()).count();
+    }
+
+    private static long validationCount(String step){
+        return meterRegistry.get("booking.validation").tag("step", step).timer().count();
+    }
+
+    private static void givenStoredBookings(List<Booking> bookings){
+        when(repository.findAllOverlapping(firstValidDate, lastValidDate)).thenReturn(bookings);
+        occupancyIndex.load();
+    }
+
     private static Booking getValidBooking(){
         return getValidBooking(String.format("RandomId-%s", Math.random()));
     }
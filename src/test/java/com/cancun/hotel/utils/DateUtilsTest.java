@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -104,4 +105,24 @@ public class DateUtilsTest {
         assertThrows(IllegalArgumentException.class, () -> dateUtils.countAndReturnDate(null, 1));
     }
 
+
+    @Test
+    public void shouldCountEpochDaysInclusive() {
+        assertThat(DateUtils.countDays(-1, 1)).isEqualTo(3);
+        assertThat(DateUtils.countDays(5, 5)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldContainOnlyDaysInsideRange() {
+        assertThat(LongStream.rangeClosed(-2, 2).filter(day -> DateUtils.contains(-1, 1, day)).toArray()).containsExactly(-1, 0, 1);
+    }
+
+    @Test
+    public void shouldOverlapWhenRangesShareAtLeastOneDay() {
+        assertThat(DateUtils.overlaps(0, 2, 2, 4)).isTrue();
+        assertThat(DateUtils.overlaps(0, 4, 1, 2)).isTrue();
+        assertThat(DateUtils.overlaps(2, 4, 0, 2)).isTrue();
+        assertThat(DateUtils.overlaps(0, 1, 2, 4)).isFalse();
+        assertThat(DateUtils.overlaps(3, 4, 0, 2)).isFalse();
+    }
 }